@@ -0,0 +1,46 @@
+package org.example.bench;
+
+import org.example.generator.GraphGenerators;
+import org.example.io.GraphLoaderBin;
+import org.example.io.GraphLoaderCsrrg;
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Benchmark inputs given as a spec string (the "graph" JMH parameter): file:NAME for a .bin or .csrrg file
+ * from the test data directory, anything else is a GraphGenerators spec (grid:WxH, rgg:N:DEG, ba:N:M, ...)
+ * generated with a fixed seed, so every fork measures the same graph.
+ * The test data directory is taken from -Dbench.data (default: the sources' test_data).
+ */
+public final class BenchGraphs {
+    public static final long SEED = 42;
+
+    private BenchGraphs() {
+    }
+
+    public static Path dataDirectory() {
+        return Paths.get(System.getProperty("bench.data", "../src/main/java/org/example/test_data"));
+    }
+
+    public static CsrGraph adjacency(String spec) throws IOException {
+        if (spec.startsWith("file:")) {
+            return load(dataDirectory().resolve(spec.substring(5)).toString()).getAdjacency();
+        }
+        return GraphGenerators.toCsrGraph(GraphGenerators.fromSpec(spec, SEED));
+    }
+
+    public static Graph load(String path) throws IOException {
+        return path.endsWith(".bin") ? GraphLoaderBin.loadGraph(path) : GraphLoaderCsrrg.loadGraph(path);
+    }
+
+    // Fresh graph over an immutable adjacency, cheap enough for per-invocation setup
+    public static Graph graphOf(CsrGraph adjacency) {
+        Graph graph = new Graph(adjacency.getNumVertices());
+        graph.setAdjacency(adjacency);
+        return graph;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.bench;
+
+import org.example.GraphVisualisation.ForceLayout;
+import org.example.model.CsrGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Force-directed layout of GraphPrePartitionPanel (ForceLayout, 20 steps per level) from a seeded random start;
+// threads = 1 runs in the calling thread, otherwise forces are computed on a pool of that size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LayoutBenchmark {
+    private static final double WIDTH = 6400;
+    private static final double HEIGHT = 2400;
+    private static final int ITERATIONS = 20;
+
+    @Param({"grid:30x30", "grid:100x100", "ba:10000:3", "file:graf.csrrg"})
+    public String graph;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private CsrGraph adjacency;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void loadGraph() throws IOException {
+        adjacency = BenchGraphs.adjacency(graph);
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @TearDown
+    public void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public double[] layout() {
+        int n = adjacency.getNumVertices();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        Random random = new Random(BenchGraphs.SEED);
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * WIDTH;
+            y[i] = random.nextDouble() * HEIGHT;
+        }
+        ForceLayout layout = new ForceLayout(adjacency, x, y, WIDTH, HEIGHT);
+        layout.setPool(pool);
+        layout.run(ITERATIONS);
+        return x;
+    }
+}
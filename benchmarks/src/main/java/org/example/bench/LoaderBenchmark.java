@@ -0,0 +1,82 @@
+package org.example.bench;
+
+import org.example.generator.GraphGenerators;
+import org.example.generator.SyntheticGraph;
+import org.example.io.GraphLoaderBin;
+import org.example.io.GraphLoaderCsrrg;
+import org.example.io.SyntheticGraphWriter;
+import org.example.model.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading .bin and .csrrg files: file:NAME is a test data base name (NAME.bin and NAME.csrrg),
+ * anything else a GraphGenerators spec written to temporary files before the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoaderBenchmark {
+
+    @Param({"file:graf", "file:graf1", "file:graf5", "grid:1000x1000", "rgg:1000000:8", "ba:1000000:4"})
+    public String graph;
+
+    private String binPath;
+    private String csrrgPath;
+    private boolean generated;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (graph.startsWith("file:")) {
+            binPath = BenchGraphs.dataDirectory().resolve(graph.substring(5) + ".bin").toString();
+            csrrgPath = BenchGraphs.dataDirectory().resolve(graph.substring(5) + ".csrrg").toString();
+            return;
+        }
+        SyntheticGraph synthetic = GraphGenerators.fromSpec(graph, BenchGraphs.SEED);
+        binPath = Files.createTempFile("bench", ".bin").toString();
+        csrrgPath = Files.createTempFile("bench", ".csrrg").toString();
+        generated = true;
+        SyntheticGraphWriter.writeBin(synthetic, binPath);
+        SyntheticGraphWriter.writeCsrrg(synthetic, csrrgPath);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (generated) {
+            Files.deleteIfExists(Path.of(binPath));
+            Files.deleteIfExists(Path.of(csrrgPath));
+        }
+    }
+
+    @Benchmark
+    public Graph loadBin() throws IOException {
+        Graph graph = GraphLoaderBin.loadGraph(binPath);
+        graph.getAdjacency();
+        return graph;
+    }
+
+    @Benchmark
+    public Graph loadCsrrg() throws IOException {
+        Graph graph = GraphLoaderCsrrg.loadGraph(csrrgPath);
+        graph.getAdjacency();
+        return graph;
+    }
+}
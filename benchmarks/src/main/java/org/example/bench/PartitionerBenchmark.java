@@ -0,0 +1,138 @@
+package org.example.bench;
+
+import org.example.algorithm.GraphPartitioner;
+import org.example.algorithm.PartitionLog;
+import org.example.algorithm.PartitionWorkspace;
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The partitioning steps on one graph. Steps that modify the graph get a fresh Graph over the same
+ * immutable adjacency before every invocation; they run for milliseconds, so the per-invocation
+ * setup does not distort the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionerBenchmark {
+
+    @Param({"grid:200x200", "regular:40000:4", "ba:20000:3", "rgg:40000:8", "file:graf1.bin"})
+    public String graph;
+
+    @Param({"10"})
+    public int marginPercent;
+
+    private CsrGraph adjacency;
+    private Graph current;
+    private int[] group1;
+    private int size1;
+    private int[] group2;
+    private int size2;
+
+    // BFS sources share one graph and the engine of one workspace
+    private Graph searchGraph;
+    private PartitionWorkspace searchWorkspace;
+
+    @Setup(Level.Trial)
+    public void loadGraph() throws IOException {
+        PartitionLog.setLevel(PartitionLog.Level.OFF);
+        adjacency = BenchGraphs.adjacency(graph);
+        searchGraph = BenchGraphs.graphOf(adjacency);
+        searchWorkspace = new PartitionWorkspace();
+    }
+
+    @Setup(Level.Invocation)
+    public void freshGraph() {
+        current = BenchGraphs.graphOf(adjacency);
+        GraphPartitioner.findConnectedComponents(current);
+
+        // Component 0 halved in BFS order: group 1 is connected, group 2 mostly is
+        int[] order = bfsOrder(current.getComponentVertices(0), current.getComponentSize(0));
+        int half = order.length / 2;
+        group1 = new int[half];
+        group2 = new int[order.length];
+        size1 = 0;
+        size2 = 0;
+        int[] groupAssignment = current.getGroupAssignment();
+        for (int i = 0; i < order.length; i++) {
+            if (i < half) {
+                group1[size1++] = order[i];
+                groupAssignment[order[i]] = 1;
+            } else {
+                group2[size2++] = order[i];
+                groupAssignment[order[i]] = 2;
+            }
+        }
+    }
+
+    @Benchmark
+    public int findConnectedComponents() {
+        GraphPartitioner.findConnectedComponents(current);
+        return current.getNumComponents();
+    }
+
+    @Benchmark
+    public int dijkstra() {
+        GraphPartitioner.dijkstra(searchGraph, 0, searchWorkspace);
+        return searchGraph.getMaxDistances()[0];
+    }
+
+    @Benchmark
+    public boolean partitionGraph() {
+        return GraphPartitioner.partitionGraph(current, marginPercent);
+    }
+
+    @Benchmark
+    public int balanceGroups() {
+        int margin = marginPercent * (size1 + size2) / 100;
+        return GraphPartitioner.balanceGroups(current, group1, size1, group2, size2, margin);
+    }
+
+    @Benchmark
+    public int splitGraph() {
+        GraphPartitioner.splitGraph(current, 0);
+        return current.getNumComponents();
+    }
+
+    private int[] bfsOrder(int[] members, int size) {
+        int[] order = new int[size];
+        if (size == 0) return order;
+        boolean[] visited = new boolean[current.getNumVertices()];
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+        int head = 0;
+        int tail = 0;
+        order[tail++] = members[0];
+        visited[members[0]] = true;
+        while (head < tail) {
+            int v = order[head++];
+            for (int e = offsets[v]; e < ends[v]; e++) {
+                int u = targets[e];
+                if (!visited[u]) {
+                    visited[u] = true;
+                    order[tail++] = u;
+                }
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,186 @@
+package org.example;
+
+import org.example.algorithm.GraphPartitioner;
+import org.example.algorithm.PartitionLog;
+import org.example.generator.GraphGenerators;
+import org.example.generator.SyntheticGraph;
+import org.example.io.GraphLoaderBin;
+import org.example.io.GraphLoaderCsrrg;
+import org.example.io.GraphSnapshot;
+import org.example.io.PartitionResultWriter;
+import org.example.io.SyntheticGraphWriter;
+import org.example.model.Graph;
+import org.example.model.GraphException;
+import org.example.model.PartitionResult;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Tryb wsadowy: wczytanie grafu, podział i zapis wyniku (albo wygenerowanie grafu testowego) bez uruchamiania Swinga/AWT.
+ * Nie może odwoływać się do klas interfejsu (MainFrame, panele), żeby nie ładować AWT.
+ */
+public class BatchRunner {
+    // Kody wyjścia
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_INCOMPLETE = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_ERROR = 3;
+
+    private static final String USAGE = String.join("\n",
+            "Użycie: <plik.csrrg|plik.bin> <liczba_cięć> <margines%> <plik_wynikowy> [opcje]",
+            "  plik_wynikowy z rozszerzeniem " + GraphSnapshot.EXTENSION + " - zrzut binarny (GraphSnapshot),",
+            "  w przeciwnym razie tekst (PartitionResultWriter)",
+            "Opcje:",
+            "  --mode center|multilevel   algorytm podziału (domyślnie center)",
+            "  --recursive                równoległa bisekcja rekurencyjna",
+            "  --no-refine                bez refinementu FM",
+            "  --threads N                liczba wątków",
+            "  --log LEVEL                off|error|summary|detail|dump (domyślnie summary)",
+            "Kody wyjścia: 0 - wykonano wszystkie cięcia, 1 - wykonano mniej cięć, 2 - błędne argumenty, 3 - błąd wczytywania/zapisu lub przebiegu",
+            "",
+            "Generowanie grafu: generate <opis> <plik.csrrg|plik.bin> [--seed N]",
+            "  opis: grid:WxH, grid3d:XxYxZ, rgg:N:STOPIEŃ, er:N:STOPIEŃ, ba:N:M, regular:N:D, multi:K:OPIS");
+
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        if (args.length > 0 && args[0].equals("generate")) {
+            return generate(args);
+        }
+        if (args.length < 4) {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        String inputPath = args[0];
+        String outputPath = args[3];
+        int numCuts;
+        int marginPercent;
+        try {
+            numCuts = Integer.parseInt(args[1]);
+            marginPercent = Integer.parseInt(args[2]);
+            if (numCuts < 1 || marginPercent < 0) {
+                throw new NumberFormatException();
+            }
+            parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Błąd: Niepoprawne argumenty" + (e.getMessage() != null ? ": " + e.getMessage() : ""));
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            long start = System.nanoTime();
+            Graph graph = inputPath.toLowerCase().endsWith(".bin")
+                    ? GraphLoaderBin.loadGraph(inputPath)
+                    : GraphLoaderCsrrg.loadGraph(inputPath);
+            long loaded = System.nanoTime();
+
+            List<PartitionResult.PartitionInfo> results = PartitionResult.performPartitioning(graph, numCuts, marginPercent);
+            long partitioned = System.nanoTime();
+
+            if (outputPath.toLowerCase().endsWith(GraphSnapshot.EXTENSION)) {
+                GraphSnapshot.write(graph, results, outputPath);
+            } else {
+                PartitionResultWriter.write(graph, results, numCuts, marginPercent, outputPath);
+            }
+            long saved = System.nanoTime();
+
+            System.out.printf("Wynik zapisany do %s: cięcia %d/%d, wczytanie %d ms, podział %d ms, zapis %d ms\n",
+                    outputPath, results.size(), numCuts, (loaded - start) / 1_000_000,
+                    (partitioned - loaded) / 1_000_000, (saved - partitioned) / 1_000_000);
+            return results.size() == numCuts ? EXIT_OK : EXIT_INCOMPLETE;
+        } catch (GraphException e) {
+            System.err.println(e.getMessage());
+            return EXIT_ERROR;
+        } catch (IOException e) {
+            System.err.println("Błąd wejścia/wyjścia: " + e);
+            return EXIT_ERROR;
+        } catch (RuntimeException e) {
+            // Inaczej JVM kończy się kodem 1, nieodróżnialnym od EXIT_INCOMPLETE
+            System.err.println("Błąd: Nieoczekiwany błąd: " + e);
+            return EXIT_ERROR;
+        } catch (OutOfMemoryError e) {
+            System.err.println("Błąd: Brak pamięci (zwiększ -Xmx): " + e.getMessage());
+            return EXIT_ERROR;
+        }
+    }
+
+    // generate <opis> <plik> [--seed N]
+    private static int generate(String[] args) {
+        SyntheticGraph graph;
+        String outputPath;
+        try {
+            if (args.length != 3 && !(args.length == 5 && args[3].equals("--seed"))) {
+                throw new IllegalArgumentException();
+            }
+            long seed = args.length == 5 ? Long.parseLong(args[4]) : 1;
+            graph = GraphGenerators.fromSpec(args[1], seed);
+            outputPath = args[2];
+        } catch (IllegalArgumentException e) {
+            System.err.println("Błąd: Niepoprawne argumenty" + (e.getMessage() != null ? ": " + e.getMessage() : ""));
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            long start = System.nanoTime();
+            SyntheticGraphWriter.write(graph, outputPath);
+            System.out.printf("Graf %s (%d wierzchołków) zapisany do %s w %d ms\n",
+                    graph.getSpec(), graph.getNumVertices(), outputPath, (System.nanoTime() - start) / 1_000_000);
+            return EXIT_OK;
+        } catch (GraphException e) {
+            System.err.println(e.getMessage());
+            return EXIT_ERROR;
+        } catch (IOException e) {
+            System.err.println("Błąd wejścia/wyjścia: " + e);
+            return EXIT_ERROR;
+        } catch (RuntimeException e) {
+            // Inaczej JVM kończy się kodem 1, nieodróżnialnym od EXIT_INCOMPLETE
+            System.err.println("Błąd: Nieoczekiwany błąd: " + e);
+            return EXIT_ERROR;
+        } catch (OutOfMemoryError e) {
+            System.err.println("Błąd: Brak pamięci (zwiększ -Xmx): " + e.getMessage());
+            return EXIT_ERROR;
+        }
+    }
+
+    private static void parseOptions(String[] args) {
+        for (int i = 4; i < args.length; i++) {
+            switch (args[i]) {
+                case "--mode":
+                    String mode = value(args, ++i);
+                    if (mode.equals("center")) {
+                        GraphPartitioner.setPartitionMode(GraphPartitioner.PartitionMode.CENTER_GROWTH);
+                    } else if (mode.equals("multilevel")) {
+                        GraphPartitioner.setPartitionMode(GraphPartitioner.PartitionMode.MULTILEVEL);
+                    } else {
+                        throw new IllegalArgumentException("nieznany tryb " + mode);
+                    }
+                    break;
+                case "--recursive":
+                    GraphPartitioner.setRecursiveDriver(true);
+                    break;
+                case "--no-refine":
+                    GraphPartitioner.setRefinementEnabled(false);
+                    break;
+                case "--threads":
+                    GraphPartitioner.setParallelism(Integer.parseInt(value(args, ++i)));
+                    break;
+                case "--log":
+                    PartitionLog.setLevel(PartitionLog.Level.valueOf(value(args, ++i).toUpperCase()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("nieznana opcja " + args[i]);
+            }
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("brak wartości opcji " + args[index - 1]);
+        }
+        return args[index];
+    }
+}
@@ -1,11 +1,11 @@
 package org.example;
+import org.example.model.CsrGraph;
 import org.example.model.PartitionResult;
 import org.example.model.Graph;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -18,16 +18,13 @@ public class DetailsUI {
     private JTable adjacencyTablePostPartition;
     private Graph graph;
     private List<PartitionResult.PartitionInfo> partitionResults;  // Changed type
-    private List<Integer>[] originalNeighbors;
+    private CsrGraph originalNeighbors;
 
-    public DetailsUI(Graph graph, List<Integer>[] originalNeighborsList) {
+    public DetailsUI(Graph graph, CsrGraph originalNeighbors) {
         this.graph = graph;
         this.partitionResults = null;
-        // Zapisz kopię oryginalnej listy sąsiedztwa
-        this.originalNeighbors = new ArrayList[graph.getNumVertices()];
-        for (int i = 0; i < graph.getNumVertices(); i++) {
-            this.originalNeighbors[i] = new ArrayList<>(originalNeighborsList[i]);
-        }
+        // Lista sąsiedztwa jest niemutowalna, więc nie trzeba jej kopiować
+        this.originalNeighbors = originalNeighbors;
         initializeTables();
     }
 
@@ -48,25 +45,9 @@ public class DetailsUI {
 
         if (originalNeighbors != null && graph != null) {
             for (int i = 0; i < graph.getNumVertices(); i++) {
-                StringBuilder adjacencyStr = new StringBuilder();
-                List<Integer> neighbors = originalNeighbors[i];
-
-                if (neighbors.isEmpty()) {
-                    adjacencyStr.append("[]");
-                } else {
-                    adjacencyStr.append("[");
-                    for (int j = 0; j < neighbors.size(); j++) {
-                        adjacencyStr.append(neighbors.get(j));
-                        if (j < neighbors.size() - 1) {
-                            adjacencyStr.append(", ");
-                        }
-                    }
-                    adjacencyStr.append("]");
-                }
-
                 model.addRow(new Object[]{
                         String.format("%d", i),
-                        adjacencyStr.toString()
+                        originalNeighbors.neighborsToString(i)
                 });
             }
         }
@@ -81,6 +62,7 @@ public class DetailsUI {
 
         if (partitionResults != null && !partitionResults.isEmpty()) {
             PartitionResult.PartitionInfo lastResult = partitionResults.get(partitionResults.size() - 1);
+            CsrGraph adjacency = graph.getAdjacency();
 
             for (Map.Entry<Integer, List<Integer>> entry : lastResult.getComponentVertices().entrySet()) {
                 int groupId = entry.getKey();
@@ -91,7 +73,7 @@ public class DetailsUI {
                     model.addRow(new Object[]{
                             groupId,
                             vertex,
-                            graph.getNeighbors()[vertex].toString()
+                            adjacency.neighborsToString(vertex)
                     });
                 }
             }
@@ -162,13 +144,10 @@ public class DetailsUI {
         return technicalPanel;
     }
 
-    public void setOriginalNeighbors(List<Integer>[] neighbors) {
+    public void setOriginalNeighbors(CsrGraph neighbors) {
         if (neighbors == null || graph == null) return;
 
-        this.originalNeighbors = new ArrayList[graph.getNumVertices()];
-        for (int i = 0; i < graph.getNumVertices(); i++) {
-            this.originalNeighbors[i] = new ArrayList<>(neighbors[i]);
-        }
+        this.originalNeighbors = neighbors;
         initializeTables();
     }
 
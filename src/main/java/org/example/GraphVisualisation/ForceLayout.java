@@ -0,0 +1,622 @@
+package org.example.GraphVisualisation;
+
+import org.example.model.CsrGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Wielopoziomowy układ siłowy Fruchtermana-Reingolda na tablicach współrzędnych x[], y[] (modyfikowanych w miejscu).
+ * Graf jest zgrubiany przez skojarzenia sąsiednich wierzchołków, najmniejszy poziom układany jest od zera,
+ * a każdy drobniejszy startuje z pozycji swojego poziomu zgrubionego - dzięki temu duże grafy nie zostają
+ * "zmięte", jak przy pojedynczym poziomie startującym z przypadkowego ułożenia.
+ * Odpychanie k²/d liczone jest dla wszystkich par przybliżeniem Barnesa-Huta: odległa komórka drzewa
+ * czwórkowego działa jak jeden punkt w swoim środku masy, więc krok kosztuje O(n log n) zamiast O(n²).
+ * Przyciąganie d²/k działa wzdłuż krawędzi, a słaba grawitacja utrzymuje składowe razem.
+ * Na koniec układ jest skalowany do obszaru width x height.
+ *
+ * W kroku siła każdego wierzchołka zależy tylko od pozycji z poprzedniego kroku i jest zapisywana wyłącznie
+ * do jego pól forceX/forceY, więc zakresy wierzchołków liczone są równolegle w ForkJoinPool; każdy wątek ma
+ * własny stos przejścia drzewa (ThreadLocal). Budowa drzewa i przesunięcie wierzchołków są sekwencyjne.
+ */
+public final class ForceLayout {
+    // Komórka o boku s widziana z odległości d jest przybliżana, gdy s / d < THETA
+    private static final double THETA = 1.2;
+    private static final int MAX_DEPTH = 48;
+    private static final double MIN_DIST_SQ = 1e-4;
+    private static final int COARSEST_SIZE = 50;
+    // Zgrubianie kończy się, gdy poziom zmniejsza się o mniej niż ten ułamek
+    private static final double MIN_REDUCTION = 0.1;
+    private static final int COARSEST_ITERATIONS = 200;
+    // Temperatura na końcu poziomu jako ułamek k
+    private static final double FINAL_TEMPERATURE = 0.05;
+    private static final long SEED = 42;
+    private static final int REORDER_INTERVAL = 10;
+    // Poniżej tylu wierzchołków zakres nie jest dalej dzielony między wątki
+    private static final int VERTICES_PER_TASK = 1024;
+    private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+    private static final double GRAVITY = 1.0;
+
+    private final CsrGraph adjacency;
+    private final double[] x;
+    private final double[] y;
+    private final double width;
+    private final double height;
+    private double margin = 0.05;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private Listener listener;
+    private volatile boolean cancelled;
+
+    // Aktualnie układany poziom
+    private int n;
+    private int[] offsets;
+    private int[] targets;
+    private double[] posX;
+    private double[] posY;
+    private double k;
+    private double centroidX;
+    private double centroidY;
+    // Wierzchołek aktualnego poziomu zawierający dany wierzchołek grafu (tylko przy publikowaniu pozycji)
+    private int[] ancestor;
+    private long lastPublish;
+
+    private final double[] forceX;
+    private final double[] forceY;
+    // Wierzchołki poziomu w kolejności krzywej Mortona - sąsiednie w przestrzeni przechodzą po tych samych
+    // węzłach drzewa, co poprawia wykorzystanie pamięci podręcznej
+    private int[] order;
+    private long[] mortonKeys;
+
+    // Drzewo czwórkowe: węzeł i ma dzieci child[4i..4i+3] (0 = brak), body[i] >= 0 to jedyny punkt liścia,
+    // -1 węzeł wewnętrzny lub pusty, -2 liść z wieloma punktami na maksymalnej głębokości
+    private int[] child;
+    private int[] body;
+    private double[] mass;
+    private double[] centerX;
+    private double[] centerY;
+    private double[] size;
+    private int nodeCount;
+    private final ThreadLocal<Traversal> traversals = ThreadLocal.withInitial(Traversal::new);
+
+    /**
+     * Odbiorca pośrednich pozycji, wywoływany z wątku liczącego układ co najmniej co PUBLISH_INTERVAL_NANOS.
+     * Tablice są nowymi kopiami (indeksowanymi numerami wierzchołków grafu, przeskalowanymi do obszaru),
+     * więc odbiorca może je zatrzymać i czytać z innego wątku.
+     */
+    public interface Listener {
+        void positionsUpdated(double[] x, double[] y);
+    }
+
+    // Stos przejścia drzewa, osobny dla każdego wątku
+    private static class Traversal {
+        int[] stack = new int[4 * MAX_DEPTH + 4];
+    }
+
+    // Poziom hierarchii: graf CSR bez wag i przypisanie wierzchołków do poziomu zgrubionego
+    private static class Level {
+        final int n;
+        final int[] offsets;
+        final int[] targets;
+        int[] coarseMap;
+
+        Level(int n, int[] offsets, int[] targets) {
+            this.n = n;
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+    }
+
+    public ForceLayout(CsrGraph adjacency, double[] x, double[] y, double width, double height) {
+        this.adjacency = adjacency.compact();
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        int vertexCount = adjacency.getNumVertices();
+        this.forceX = new double[vertexCount];
+        this.forceY = new double[vertexCount];
+        this.order = new int[vertexCount];
+        this.mortonKeys = new long[vertexCount];
+        allocateTree(Math.max(16, 2 * vertexCount));
+    }
+
+    // Część szerokości/wysokości przy brzegach, która pozostaje pusta po przeskalowaniu układu
+    public void setMargin(double margin) {
+        this.margin = margin;
+    }
+
+    // Pula dla równoległego liczenia sił; null - wszystko w wątku wywołującym run
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Może być wywołane z dowolnego wątku; run kończy się po bieżącym kroku
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Układa graf: iterations kroków na każdym poziomie oprócz najmniejszego. Temperatura (maksymalne
+     * przesunięcie w kroku) zaczyna od 2k poziomu i maleje geometrycznie do FINAL_TEMPERATURE * k.
+     * Zwraca false, jeśli układanie przerwano przez cancel() - x[], y[] nie zawierają wtedy wyniku.
+     */
+    public boolean run(int iterations) {
+        if (adjacency.getNumVertices() == 0) return true;
+        // Pozycje początkowe mogą mieć dowolną skalę, a temperatura jest liczona względem obszaru width x height
+        fitToBounds(x, y, x.length);
+        lastPublish = System.nanoTime();
+        Level[] levels = buildHierarchy();
+        int depth = levels.length;
+
+        // Najmniejszy poziom startuje ze średnich pozycji początkowych swoich wierzchołków
+        double[] levelX = x;
+        double[] levelY = y;
+        for (int l = 0; l < depth - 1; l++) {
+            int[] cmap = levels[l].coarseMap;
+            int coarseCount = levels[l + 1].n;
+            double[] coarseX = new double[coarseCount];
+            double[] coarseY = new double[coarseCount];
+            int[] members = new int[coarseCount];
+            for (int v = 0; v < levels[l].n; v++) {
+                coarseX[cmap[v]] += levelX[v];
+                coarseY[cmap[v]] += levelY[v];
+                members[cmap[v]]++;
+            }
+            for (int c = 0; c < coarseCount; c++) {
+                coarseX[c] /= members[c];
+                coarseY[c] /= members[c];
+            }
+            levelX = coarseX;
+            levelY = coarseY;
+        }
+
+        Random random = new Random(SEED);
+        for (int l = depth - 1; l >= 0; l--) {
+            Level level = levels[l];
+            if (l < depth - 1) {
+                // Wierzchołki dziedziczą pozycję wierzchołka zgrubionego z niewielkim rozrzutem
+                double[] fineX = l == 0 ? x : new double[level.n];
+                double[] fineY = l == 0 ? y : new double[level.n];
+                double jitter = 0.1 * idealLength(level.n);
+                for (int v = 0; v < level.n; v++) {
+                    fineX[v] = levelX[level.coarseMap[v]] + (random.nextDouble() - 0.5) * jitter;
+                    fineY[v] = levelY[level.coarseMap[v]] + (random.nextDouble() - 0.5) * jitter;
+                }
+                levelX = fineX;
+                levelY = fineY;
+            }
+            useLevel(level, levelX, levelY);
+            if (listener != null) {
+                ancestor = ancestors(levels, l);
+            }
+
+            boolean coarsest = l == depth - 1;
+            int levelIterations = coarsest && level.n <= COARSEST_SIZE * 4 ? COARSEST_ITERATIONS : iterations;
+            double temperature = coarsest ? Math.max(width, height) / 10 : 2 * k;
+            double cooling = Math.pow(FINAL_TEMPERATURE * k / temperature, 1.0 / Math.max(1, levelIterations));
+            for (int iter = 0; iter < levelIterations; iter++) {
+                if (cancelled) return false;
+                if (iter % REORDER_INTERVAL == 0) {
+                    sortSpatially();
+                }
+                step(temperature);
+                temperature *= cooling;
+                publishIfDue();
+            }
+        }
+        fitToBounds(x, y, x.length);
+        return true;
+    }
+
+    private double idealLength(int vertexCount) {
+        return Math.sqrt(width * height / Math.max(1, vertexCount));
+    }
+
+    private void useLevel(Level level, double[] levelX, double[] levelY) {
+        n = level.n;
+        offsets = level.offsets;
+        targets = level.targets;
+        posX = levelX;
+        posY = levelY;
+        k = idealLength(n);
+    }
+
+    private void step(double maxMove) {
+        buildTree();
+        centroidX = 0;
+        centroidY = 0;
+        for (int i = 0; i < n; i++) {
+            centroidX += posX[i];
+            centroidY += posY[i];
+        }
+        centroidX /= n;
+        centroidY /= n;
+
+        if (pool != null && n > VERTICES_PER_TASK) {
+            pool.invoke(new ForceRange(0, n));
+        } else {
+            computeForces(0, n);
+        }
+        move(maxMove);
+    }
+
+    // Siły wierzchołków order[from..to) - zapisuje tylko ich własne pola forceX/forceY
+    private void computeForces(int from, int to) {
+        Traversal traversal = traversals.get();
+        for (int j = from; j < to; j++) {
+            computeForce(order[j], traversal);
+        }
+    }
+
+    private class ForceRange extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        ForceRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= VERTICES_PER_TASK) {
+                computeForces(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForceRange(from, mid), new ForceRange(mid, to));
+        }
+    }
+
+    private void publishIfDue() {
+        if (listener == null) return;
+        long now = System.nanoTime();
+        if (now - lastPublish < PUBLISH_INTERVAL_NANOS) return;
+        lastPublish = now;
+
+        int vertexCount = x.length;
+        double[] snapshotX = new double[vertexCount];
+        double[] snapshotY = new double[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            snapshotX[v] = posX[ancestor[v]];
+            snapshotY[v] = posY[ancestor[v]];
+        }
+        fitToBounds(snapshotX, snapshotY, vertexCount);
+        listener.positionsUpdated(snapshotX, snapshotY);
+    }
+
+    private static int[] ancestors(Level[] levels, int level) {
+        int vertexCount = levels[0].n;
+        int[] result = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            int a = v;
+            for (int l = 0; l < level; l++) {
+                a = levels[l].coarseMap[a];
+            }
+            result[v] = a;
+        }
+        return result;
+    }
+
+    // Skalowanie (z zachowaniem proporcji) i wyśrodkowanie układu w obszarze bez marginesów
+    private void fitToBounds(double[] px, double[] py, int count) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, px[i]);
+            maxX = Math.max(maxX, px[i]);
+            minY = Math.min(minY, py[i]);
+            maxY = Math.max(maxY, py[i]);
+        }
+        double boxWidth = width * (1 - 2 * margin);
+        double boxHeight = height * (1 - 2 * margin);
+        double scale = Math.min(boxWidth / Math.max(maxX - minX, 1e-9), boxHeight / Math.max(maxY - minY, 1e-9));
+        double offsetX = width * margin + (boxWidth - (maxX - minX) * scale) / 2;
+        double offsetY = height * margin + (boxHeight - (maxY - minY) * scale) / 2;
+        for (int i = 0; i < count; i++) {
+            px[i] = offsetX + (px[i] - minX) * scale;
+            py[i] = offsetY + (py[i] - minY) * scale;
+        }
+    }
+
+    private void sortSpatially() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, posX[i]);
+            maxX = Math.max(maxX, posX[i]);
+            minY = Math.min(minY, posY[i]);
+            maxY = Math.max(maxY, posY[i]);
+        }
+        double scale = 65535 / Math.max(Math.max(maxX - minX, maxY - minY), 1e-9);
+        for (int i = 0; i < n; i++) {
+            long code = interleave((int) ((posX[i] - minX) * scale)) | interleave((int) ((posY[i] - minY) * scale)) << 1;
+            mortonKeys[i] = code << 32 | i;
+        }
+        Arrays.sort(mortonKeys, 0, n);
+        for (int j = 0; j < n; j++) {
+            order[j] = (int) mortonKeys[j];
+        }
+    }
+
+    // Bity 16-bitowej liczby rozsunięte na pozycje parzyste
+    private static long interleave(int value) {
+        long v = value & 0xFFFF;
+        v = (v | v << 8) & 0x00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0FL;
+        v = (v | v << 2) & 0x33333333L;
+        v = (v | v << 1) & 0x55555555L;
+        return v;
+    }
+
+    // ====================== ZGRUBIANIE ======================
+
+    private Level[] buildHierarchy() {
+        Random random = new Random(SEED);
+        Level[] levels = new Level[8];
+        int depth = 0;
+        levels[depth++] = new Level(adjacency.getNumVertices(), adjacency.getOffsets(), adjacency.getTargets());
+        while (levels[depth - 1].n > COARSEST_SIZE) {
+            Level fine = levels[depth - 1];
+            Level coarse = coarsen(fine, random);
+            if (coarse.n > fine.n * (1 - MIN_REDUCTION)) {
+                fine.coarseMap = null;
+                break;
+            }
+            if (depth == levels.length) {
+                levels = Arrays.copyOf(levels, depth * 2);
+            }
+            levels[depth++] = coarse;
+        }
+        return Arrays.copyOf(levels, depth);
+    }
+
+    // Każdy wierzchołek (w losowej kolejności) łączy się z pierwszym nieskojarzonym sąsiadem;
+    // skojarzona para staje się jednym wierzchołkiem, a krawędzie równoległe są scalane
+    private static Level coarsen(Level fine, Random random) {
+        int fineCount = fine.n;
+        int[] match = new int[fineCount];
+        Arrays.fill(match, -1);
+        int[] cmap = new int[fineCount];
+        int[] firstFine = new int[fineCount];
+        int cn = 0;
+
+        int[] perm = new int[fineCount];
+        for (int i = 0; i < fineCount; i++) perm[i] = i;
+        for (int i = fineCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+
+        for (int p = 0; p < fineCount; p++) {
+            int u = perm[p];
+            if (match[u] != -1) continue;
+            int mate = u;
+            for (int e = fine.offsets[u]; e < fine.offsets[u + 1]; e++) {
+                int v = fine.targets[e];
+                if (match[v] == -1 && v != u) {
+                    mate = v;
+                    break;
+                }
+            }
+            match[u] = mate;
+            match[mate] = u;
+            cmap[u] = cn;
+            cmap[mate] = cn;
+            firstFine[cn++] = u;
+        }
+
+        int[] coarseOffsets = new int[cn + 1];
+        int[] coarseTargets = new int[fine.targets.length];
+        int[] position = new int[cn];
+        Arrays.fill(position, -1);
+        int e = 0;
+        for (int c = 0; c < cn; c++) {
+            coarseOffsets[c] = e;
+            int rowStart = e;
+            int u = firstFine[c];
+            for (int part = 0; part < 2; part++) {
+                if (part == 1) {
+                    if (match[u] == u) break;
+                    u = match[u];
+                }
+                for (int i = fine.offsets[u]; i < fine.offsets[u + 1]; i++) {
+                    int cv = cmap[fine.targets[i]];
+                    if (cv == c || position[cv] >= rowStart) continue;
+                    position[cv] = e;
+                    coarseTargets[e++] = cv;
+                }
+            }
+        }
+        coarseOffsets[cn] = e;
+
+        fine.coarseMap = cmap;
+        return new Level(cn, coarseOffsets, Arrays.copyOf(coarseTargets, e));
+    }
+
+    // ====================== SIŁY ======================
+
+    private void computeForce(int i, Traversal traversal) {
+        double k2 = k * k;
+        double xi = posX[i];
+        double yi = posY[i];
+        double fx = 0;
+        double fy = 0;
+
+        // Odpychanie: przejście drzewa od korzenia
+        int[] stack = traversal.stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (body[node] == i) continue;
+            double dx = xi - centerX[node];
+            double dy = yi - centerY[node];
+            double distSq = dx * dx + dy * dy;
+            boolean leaf = body[node] != -1;
+            if (leaf || size[node] * size[node] < THETA * THETA * distSq) {
+                if (distSq < MIN_DIST_SQ) {
+                    // Pokrywające się punkty rozsuwamy w stałym, zależnym od indeksu kierunku
+                    dx = Math.cos(i);
+                    dy = Math.sin(i);
+                    distSq = MIN_DIST_SQ;
+                }
+                // |F| = m k² / d w kierunku (dx, dy) / d
+                double f = mass[node] * k2 / distSq;
+                fx += dx * f;
+                fy += dy * f;
+            } else {
+                for (int c = 4 * node; c < 4 * node + 4; c++) {
+                    if (child[c] != 0) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                            traversal.stack = stack;
+                        }
+                        stack[top++] = child[c];
+                    }
+                }
+            }
+        }
+
+        // Przyciąganie: |F| = d² / k wzdłuż każdej krawędzi wierzchołka
+        for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+            int j = targets[e];
+            double dx = xi - posX[j];
+            double dy = yi - posY[j];
+            double f = Math.sqrt(dx * dx + dy * dy) / k;
+            fx -= dx * f;
+            fy -= dy * f;
+        }
+
+        // Słaba sprężyna do środka ciężkości |F| = GRAVITY * d - bez niej odpychanie wypycha izolowane
+        // wierzchołki i małe składowe daleko od reszty grafu, a ta po przeskalowaniu staje się punktem
+        fx -= GRAVITY * (xi - centroidX);
+        fy -= GRAVITY * (yi - centroidY);
+
+        forceX[i] = fx;
+        forceY[i] = fy;
+    }
+
+    private void move(double maxMove) {
+        for (int i = 0; i < n; i++) {
+            double fx = forceX[i];
+            double fy = forceY[i];
+            double magnitude = Math.sqrt(fx * fx + fy * fy);
+            if (magnitude > maxMove) {
+                fx = fx / magnitude * maxMove;
+                fy = fy / magnitude * maxMove;
+            }
+            posX[i] += fx;
+            posY[i] += fy;
+        }
+    }
+
+    // ====================== DRZEWO CZWÓRKOWE ======================
+
+    private void buildTree() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, posX[i]);
+            maxX = Math.max(maxX, posX[i]);
+            minY = Math.min(minY, posY[i]);
+            maxY = Math.max(maxY, posY[i]);
+        }
+        double side = Math.max(Math.max(maxX - minX, maxY - minY), 1e-9) * 1.0001;
+
+        nodeCount = 0;
+        int root = newNode(side);
+        double rootX = minX;
+        double rootY = minY;
+        for (int j = 0; j < n; j++) {
+            insert(root, rootX, rootY, order[j]);
+        }
+    }
+
+    // Wstawia punkt p do poddrzewa node o lewym górnym rogu (nodeX, nodeY), aktualizując środki mas po drodze
+    private void insert(int node, double nodeX, double nodeY, int p) {
+        double px = posX[p];
+        double py = posY[p];
+        for (int depth = 0; ; depth++) {
+            double m = mass[node] + 1;
+            centerX[node] += (px - centerX[node]) / m;
+            centerY[node] += (py - centerY[node]) / m;
+            mass[node] = m;
+
+            if (m == 1) {
+                body[node] = p;
+                return;
+            }
+            if (depth == MAX_DEPTH) {
+                body[node] = -2;
+                return;
+            }
+            double half = size[node] / 2;
+            int existing = body[node];
+            if (existing >= 0) {
+                // Liść z jednym punktem staje się węzłem wewnętrznym, dotychczasowy punkt schodzi niżej
+                body[node] = -1;
+                int q = quadrant(posX[existing], posY[existing], nodeX, nodeY, half);
+                int c = newNode(half);
+                child[4 * node + q] = c;
+                body[c] = existing;
+                mass[c] = 1;
+                centerX[c] = posX[existing];
+                centerY[c] = posY[existing];
+            }
+            int q = quadrant(px, py, nodeX, nodeY, half);
+            if ((q & 1) != 0) nodeX += half;
+            if ((q & 2) != 0) nodeY += half;
+            int c = child[4 * node + q];
+            if (c == 0) {
+                c = newNode(half);
+                child[4 * node + q] = c;
+            }
+            node = c;
+        }
+    }
+
+    private static int quadrant(double px, double py, double nodeX, double nodeY, double half) {
+        return (px >= nodeX + half ? 1 : 0) | (py >= nodeY + half ? 2 : 0);
+    }
+
+    private int newNode(double side) {
+        if (nodeCount == body.length) {
+            allocateTree(body.length * 2);
+        }
+        int node = nodeCount++;
+        child[4 * node] = 0;
+        child[4 * node + 1] = 0;
+        child[4 * node + 2] = 0;
+        child[4 * node + 3] = 0;
+        body[node] = -1;
+        mass[node] = 0;
+        centerX[node] = 0;
+        centerY[node] = 0;
+        size[node] = side;
+        return node;
+    }
+
+    private void allocateTree(int capacity) {
+        child = child == null ? new int[4 * capacity] : Arrays.copyOf(child, 4 * capacity);
+        body = body == null ? new int[capacity] : Arrays.copyOf(body, capacity);
+        mass = mass == null ? new double[capacity] : Arrays.copyOf(mass, capacity);
+        centerX = centerX == null ? new double[capacity] : Arrays.copyOf(centerX, capacity);
+        centerY = centerY == null ? new double[capacity] : Arrays.copyOf(centerY, capacity);
+        size = size == null ? new double[capacity] : Arrays.copyOf(size, capacity);
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.GraphVisualisation;
 
 import org.example.PartitionUI;
+import org.example.model.CsrGraph;
 import org.example.model.Graph;
 import org.example.model.PartitionResult;
+import org.example.model.VertexPositions;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -13,7 +15,8 @@ import java.util.List;
 public class GraphPostPartitionPanel extends JPanel {
     private Graph graph;
     private List<PartitionResult.PartitionInfo> partitions;
-    private Map<Integer, Point2D> vertexPositions = new HashMap<>();
+    // Pozycje współdzielone przez referencję z PartitionUI (null, dopóki układ nie powstał)
+    private VertexPositions vertexPositions;
     private boolean layoutGenerated = false;
     private PartitionUI partitionUI ;
 
@@ -31,16 +34,37 @@ public class GraphPostPartitionPanel extends JPanel {
             new Color(150, 150, 150), // szary
             new Color(100, 255, 200)  // miętowy
     };
+    private static final Color[] EDGE_COLORS = new Color[COMPONENT_COLORS.length];
+    static {
+        for (int i = 0; i < COMPONENT_COLORS.length; i++) {
+            EDGE_COLORS[i] = COMPONENT_COLORS[i].darker();
+        }
+    }
+
+    // Składowa i indeks koloru każdego wierzchołka po ostatnim cięciu, liczone raz w setGraph
+    private int[] componentLabels = new int[0];
+    private byte[] colorIndex = new byte[0];
 
     private double zoomLevel = 1.0;
     private Point2D panOffset = new Point2D.Double(0, 0);
     private Point lastMousePos;
-    private Set<Integer> visibleVertices = new HashSet<>();
+    // Indeks pozycji budowany raz na układ; widoczne wierzchołki to visibleVertices[0..visibleCount)
+    private SpatialGrid spatialGrid;
+    private int[] visibleVertices = new int[0];
+    private int visibleCount;
     private Rectangle2D viewportBounds;
+    // Widok trzeba przeliczyć przy najbliższym rysowaniu (nowy układ, zmiana rozmiaru panelu)
+    private boolean viewportDirty = true;
 
     public GraphPostPartitionPanel() {
         setBackground(Color.WHITE);
         setupMouseListeners();
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                viewportDirty = true;
+            }
+        });
     }
 
     public void setGraph(Graph graph, List<PartitionResult.PartitionInfo> partitions) {
@@ -49,12 +73,14 @@ public class GraphPostPartitionPanel extends JPanel {
             // Zachowaj stare pozycje
         } else {
             // Wyczyść pozycje tylko jeśli zmienił się graf
-            vertexPositions.clear();
+            vertexPositions = null;
             layoutGenerated = false;
         }
 
         this.graph = graph;
         this.partitions = partitions;
+        updateComponentColors();
+        viewportDirty = true;
 
         // Generuj layout od razu przy ustawianiu grafu
         if (!layoutGenerated) {
@@ -66,35 +92,57 @@ public class GraphPostPartitionPanel extends JPanel {
         repaint();
     }
 
+    private void updateComponentColors() {
+        if (partitions == null || partitions.isEmpty()) {
+            componentLabels = new int[0];
+            colorIndex = new byte[0];
+            return;
+        }
+        componentLabels = partitions.get(partitions.size()-1).getComponentLabels();
+        colorIndex = new byte[componentLabels.length];
+        for (int v = 0; v < componentLabels.length; v++) {
+            colorIndex[v] = (byte) (Math.abs(componentLabels[v]) % COMPONENT_COLORS.length);
+        }
+    }
+
     private void generateRandomLayout() {
         if (graph == null || partitions == null || partitions.isEmpty()) return;
 
-        vertexPositions.clear();
+        vertexPositions = new VertexPositions(graph.getNumVertices());
         int width = getWidth() > 0 ? getWidth() : 800;
         int height = getHeight() > 0 ? getHeight() : 600;
 
-        // Użyj komponentów z ostatniego podziału
-        Map<Integer, List<Integer>> components = partitions.get(partitions.size()-1).getComponentVertices();
-        int componentCount = components.size();
+        // Użyj komponentów z ostatniego podziału: kolejne niepuste składowe (rosnąco) dostają kolejne pola siatki
+        int maxLabel = -1;
+        for (int label : componentLabels) {
+            maxLabel = Math.max(maxLabel, label);
+        }
+        int[] cell = new int[maxLabel + 1];
+        Arrays.fill(cell, -1);
+        for (int label : componentLabels) {
+            cell[label] = 0;
+        }
+        int componentCount = 0;
+        for (int c = 0; c <= maxLabel; c++) {
+            if (cell[c] == 0) {
+                cell[c] = componentCount++;
+            }
+        }
         int cols = (int) Math.ceil(Math.sqrt(componentCount));
-        int index = 0;
+        double areaX = width * 0.8 / cols;
+        double areaY = height * 0.8 / cols;
 
-        for (Map.Entry<Integer, List<Integer>> entry : components.entrySet()) {
+        // Losowe pozycje w obrębie obszaru komponentu
+        for (int v = 0; v < componentLabels.length; v++) {
+            int index = cell[componentLabels[v]];
             int row = index / cols;
             int col = index % cols;
-
-            double areaX = width * 0.8 / cols;
-            double areaY = height * 0.8 / cols;
             double centerX = width * 0.1 + col * areaX + areaX/2;
             double centerY = height * 0.1 + row * areaY + areaY/2;
 
-            // Losowe pozycje w obrębie obszaru komponentu
-            for (int v : entry.getValue()) {
-                double x = centerX + (Math.random() - 0.5) * areaX * 0.8;
-                double y = centerY + (Math.random() - 0.5) * areaY * 0.8;
-                vertexPositions.put(v, new Point2D.Double(x, y));
-            }
-            index++;
+            double x = centerX + (Math.random() - 0.5) * areaX * 0.8;
+            double y = centerY + (Math.random() - 0.5) * areaY * 0.8;
+            vertexPositions.set(v, x, y);
         }
     }
 
@@ -149,21 +197,26 @@ public class GraphPostPartitionPanel extends JPanel {
                     bottomRight.getY() - topLeft.getY()
             );
 
-            // Znajdź widoczne wierzchołki
-            visibleVertices.clear();
-            for (Map.Entry<Integer, Point2D> entry : vertexPositions.entrySet()) {
-                if (viewportBounds.contains(entry.getValue())) {
-                    visibleVertices.add(entry.getKey());
+            // Znajdź widoczne wierzchołki w indeksie (przebudowywanym tylko po zmianie pozycji)
+            visibleCount = 0;
+            if (vertexPositions != null) {
+                if (spatialGrid == null || !spatialGrid.isCurrent(vertexPositions)) {
+                    spatialGrid = SpatialGrid.build(vertexPositions);
+                }
+                if (visibleVertices.length != vertexPositions.size()) {
+                    visibleVertices = new int[vertexPositions.size()];
                 }
+                visibleCount = spatialGrid.query(viewportBounds, visibleVertices);
             }
+            viewportDirty = false;
             if (partitionUI != null) {
                 partitionUI.updateViewZoomInfo(zoomLevel,
-                        visibleVertices.size(),
+                        visibleCount,
                         graph != null ? graph.getNumVertices() : 0);
             }
         } catch (Exception e) {
             viewportBounds = null;
-            visibleVertices.clear();
+            visibleCount = 0;
             if (partitionUI != null) {
                 partitionUI.updateViewZoomInfo(zoomLevel, 0,
                         graph != null ? graph.getNumVertices() : 0);
@@ -183,9 +236,13 @@ public class GraphPostPartitionPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (graph == null || partitions == null || partitions.isEmpty()) return;
+        if (graph == null || partitions == null || partitions.isEmpty() || vertexPositions == null) return;
 
         // Usuń wywołanie generateLayout() stąd
+        if (viewportDirty || spatialGrid == null || !spatialGrid.isCurrent(vertexPositions)) {
+            updateViewport();
+        }
+        if (viewportBounds == null) return;
         Graphics2D g2d = (Graphics2D) g;
 
         // Włącz antyaliasing
@@ -203,32 +260,26 @@ public class GraphPostPartitionPanel extends JPanel {
     }
 
     private void drawEdges(Graphics2D g2d) {
-        PartitionResult.PartitionInfo lastPartition = partitions.get(partitions.size()-1);
-        Map<Integer, List<Integer>> components = lastPartition.getComponentVertices();
-        List<Integer>[] neighbors = graph.getNeighbors();
-
-        // Stwórz mapę vertex -> component dla łatwiejszego dostępu
-        Map<Integer, Integer> vertexToComponent = new HashMap<>();
-        for (Map.Entry<Integer, List<Integer>> entry : components.entrySet()) {
-            for (Integer vertex : entry.getValue()) {
-                vertexToComponent.put(vertex, entry.getKey());
-            }
-        }
+        CsrGraph adjacency = graph.getAdjacency();
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+        double[] x = vertexPositions.getXs();
+        double[] y = vertexPositions.getYs();
 
-        for (int i = 0; i < neighbors.length; i++) {
-            Point2D p1 = vertexPositions.get(i);
-            if (p1 == null || !visibleVertices.contains(i)) continue;
+        // Krawędź rysujemy, gdy oba końce są widoczne; drugi koniec sprawdzamy po współrzędnych
+        for (int j = 0; j < visibleCount; j++) {
+            int i = visibleVertices[j];
 
-            Color edgeColor = getComponentColor(vertexToComponent.get(i)).darker();
-            g2d.setColor(edgeColor);
+            g2d.setColor(EDGE_COLORS[colorIndex[i]]);
 
-            for (int neighbor : neighbors[i]) {
+            for (int e = offsets[i]; e < ends[i]; e++) {
+                int neighbor = targets[e];
                 if (neighbor > i) { // Rysuj każdą krawędź tylko raz
-                    Point2D p2 = vertexPositions.get(neighbor);
-                    if (p2 != null && visibleVertices.contains(neighbor)) {
+                    if (viewportBounds.contains(x[neighbor], y[neighbor])) {
                         g2d.drawLine(
-                                (int) p1.getX(), (int) p1.getY(),
-                                (int) p2.getX(), (int) p2.getY()
+                                (int) x[i], (int) y[i],
+                                (int) x[neighbor], (int) y[neighbor]
                         );
                     }
                 }
@@ -237,45 +288,34 @@ public class GraphPostPartitionPanel extends JPanel {
     }
 
     private void drawVertices(Graphics2D g2d) {
-        PartitionResult.PartitionInfo lastPartition = partitions.get(partitions.size()-1);
-        Map<Integer, List<Integer>> components = lastPartition.getComponentVertices();
         int vertexSize = calculateVertexSize();
 
-        // Stwórz mapę vertex -> component dla łatwiejszego dostępu
-        Map<Integer, Integer> vertexToComponent = new HashMap<>();
-        for (Map.Entry<Integer, List<Integer>> entry : components.entrySet()) {
-            for (Integer vertex : entry.getValue()) {
-                vertexToComponent.put(vertex, entry.getKey());
-            }
-        }
-
         // Ustaw czcionkę tylko jeśli będziemy rysować etykiety - tak jak w GraphPrePartitionPanel
         boolean drawLabels = zoomLevel > 0.8 && graph.getNumVertices() < 1000;
         if (drawLabels) {
             g2d.setFont(g2d.getFont().deriveFont((float)(8 / Math.sqrt(zoomLevel))));
         }
 
-        for (Map.Entry<Integer, Point2D> entry : vertexPositions.entrySet()) {
-            int vertex = entry.getKey();
-            Point2D pos = entry.getValue();
-            if (pos != null && visibleVertices.contains(vertex)) {
-                Color vertexColor = getComponentColor(vertexToComponent.get(vertex));
-                g2d.setColor(vertexColor);
-                g2d.fillOval(
-                        (int) (pos.getX() - vertexSize/2),
-                        (int) (pos.getY() - vertexSize/2),
-                        vertexSize, vertexSize
-                );
-
-                // Rysuj etykietę z numerem wierzchołka jeśli zoom jest wystarczająco duży
-                if (drawLabels) {
-                    g2d.setColor(Color.BLACK);
-                    String label = String.valueOf(vertex);
-                    g2d.drawString(label,
-                            (int) (pos.getX() + vertexSize/2 + 2),
-                            (int) (pos.getY() + vertexSize/2));
-                    g2d.setColor(vertexColor); // Przywróć kolor wierzchołka
-                }
+        double[] x = vertexPositions.getXs();
+        double[] y = vertexPositions.getYs();
+        for (int j = 0; j < visibleCount; j++) {
+            int vertex = visibleVertices[j];
+            Color vertexColor = COMPONENT_COLORS[colorIndex[vertex]];
+            g2d.setColor(vertexColor);
+            g2d.fillOval(
+                    (int) (x[vertex] - vertexSize/2),
+                    (int) (y[vertex] - vertexSize/2),
+                    vertexSize, vertexSize
+            );
+
+            // Rysuj etykietę z numerem wierzchołka jeśli zoom jest wystarczająco duży
+            if (drawLabels) {
+                g2d.setColor(Color.BLACK);
+                String label = String.valueOf(vertex);
+                g2d.drawString(label,
+                        (int) (x[vertex] + vertexSize/2 + 2),
+                        (int) (y[vertex] + vertexSize/2));
+                g2d.setColor(vertexColor); // Przywróć kolor wierzchołka
             }
         }
     }
@@ -287,19 +327,17 @@ public class GraphPostPartitionPanel extends JPanel {
         return (int) Math.max(2, Math.min(scaledSize, 15));
     }
 
-    private Color getComponentColor(int componentIndex) {
-        return COMPONENT_COLORS[Math.abs(componentIndex) % COMPONENT_COLORS.length];
-    }
-
 
-    public Map<Integer, Point2D> getVertexPositions() {
-        return new HashMap<>(vertexPositions);
+    // Bieżące pozycje (bez kopiowania)
+    public VertexPositions getVertexPositions() {
+        return vertexPositions;
     }
 
-    public void setVertexPositions(Map<Integer, Point2D> positions) {
+    public void setVertexPositions(VertexPositions positions) {
         if (positions != null) {
-            this.vertexPositions = new HashMap<>(positions);
+            this.vertexPositions = positions;
             layoutGenerated = true;
+            viewportDirty = true;
             repaint();
         }
     }
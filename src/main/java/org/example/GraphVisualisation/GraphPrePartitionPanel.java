@@ -1,23 +1,28 @@
 package org.example.GraphVisualisation;
+import org.example.algorithm.PartitionLog;
+import org.example.model.CsrGraph;
 import org.example.model.Graph;
+import org.example.model.VertexPositions;
 import javax.swing.*;
 import java.awt.event.*;
 import java.awt.geom.*;
-import java.util.HashMap;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.RenderingHints;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 
 public class GraphPrePartitionPanel extends JPanel {
     private Graph graph;
-    private Map<Integer, Point2D> vertexPositions = new HashMap<>();
+    // Pozycje współdzielone przez referencję z MainUI (null, dopóki układ nie powstał)
+    private VertexPositions vertexPositions;
     private boolean layoutGenerated = false;
+    // Trwające układanie (null, gdy układ jest gotowy)
+    private LayoutWorker layoutWorker;
     private double zoomLevel = 1.0;
     private Point2D panOffset = new Point2D.Double(0, 0);
     private Point lastMousePos;
@@ -38,7 +43,8 @@ public class GraphPrePartitionPanel extends JPanel {
             // Zachowaj stare pozycje
         } else {
             // Wyczyść pozycje tylko jeśli zmienił się graf
-            vertexPositions.clear();
+            cancelLayout();
+            vertexPositions = null;
             layoutGenerated = false;
         }
 
@@ -61,6 +67,7 @@ public class GraphPrePartitionPanel extends JPanel {
         int width = getWidth() > 0 ? getWidth() : 800;
         int height = getHeight() > 0 ? getHeight() : 600;
         int vertexCount = graph.getNumVertices();
+        vertexPositions = new VertexPositions(vertexCount);
 
         // Zwiększ obszar roboczy w zależności od rozmiaru grafu
         if (vertexCount > 30000) {
@@ -72,20 +79,13 @@ public class GraphPrePartitionPanel extends JPanel {
         }
 
         if (vertexCount > 1000) {
+            // Kolejność wierzchołków zwykle odpowiada sąsiedztwu, więc siatka jest lepszym startem niż losowe sektory
             generateRectangularLayout(width, height, vertexCount);
-            
-            // Stosuj odpowiednie rozpraszanie w zależności od rozmiaru
-            if (vertexCount > 30000) {
-                applyLargeGraphSpacing(width, height, vertexCount);
-            } else if (vertexCount > 5000) {
-                applyMediumGraphSpacing(width, height, vertexCount);
-            }
         } else {
             generateCircularLayout(width, height, vertexCount);
         }
 
-        applyForceDirectedLayout(width, height, vertexCount);
-        centerGraph(width, height);
+        startForceDirectedLayout(width, height, vertexCount);
     }
 
     private void generateRectangularLayout(int width, int height, int vertexCount) {
@@ -125,7 +125,7 @@ public class GraphPrePartitionPanel extends JPanel {
             double x = col * cellWidth + cellWidth / 2 + randomOffsetX;
             double y = row * cellHeight + cellHeight / 2 + randomOffsetY;
         
-            vertexPositions.put(i, new Point2D.Double(x, y));
+            vertexPositions.set(i, x, y);
         }
     }
 
@@ -139,222 +139,82 @@ public class GraphPrePartitionPanel extends JPanel {
             double angle = 2 * Math.PI * i / vertexCount;
             double x = centerX + radius * Math.cos(angle);
             double y = centerY + radius * Math.sin(angle);
-            vertexPositions.put(i, new Point2D.Double(x, y));
+            vertexPositions.set(i, x, y);
         }
     }
 
-    private void applyForceDirectedLayout(int width, int height, int vertexCount) {
-        // Dostosowane parametry dla różnych rozmiarów grafów
-        double k = Math.sqrt((width * height) / vertexCount);
-        int iterations;
-        double temperature;
-        int skipFactor;
-
-        if (vertexCount > 20000) {
-            iterations = Math.min(15, Math.max(5, 100 / (int)Math.sqrt(vertexCount)));
-            temperature = width / 12.0;
-            skipFactor = Math.max(5, vertexCount / 200);
-        } else if (vertexCount > 5000) {
-            iterations = Math.min(25, Math.max(10, 200 / (int)Math.sqrt(vertexCount)));
-            temperature = width / 8.0;
-            skipFactor = Math.max(3, vertexCount / 300);
-        } else {
-            iterations = Math.min(60, Math.max(30, 300 / (int)Math.sqrt(vertexCount)));
-            temperature = width / 6.0;
-            skipFactor = Math.max(1, vertexCount / 300);
-        }
-
-        double coolingFactor = 0.92;
-        double repulsionStrength = k * (vertexCount > 10000 ? 2.0 : 1.2);
-        double attractionStrength = 1.0 / (k * (vertexCount > 10000 ? 4.0 : 2.5));
-
-        // Force-directed layout
-        for (int iter = 0; iter < iterations; iter++) {
-            Map<Integer, Point2D.Double> forces = new HashMap<>();
-            for (int i = 0; i < vertexCount; i++) {
-                forces.put(i, new Point2D.Double(0, 0));
-            }
-
-            // Siły odpychania z większym skipFactor dla dużych grafów
-            for (int i = 0; i < vertexCount; i += skipFactor) {
-                Point2D v1 = vertexPositions.get(i);
-                for (int j = i + skipFactor; j < vertexCount; j += skipFactor) {
-                    Point2D v2 = vertexPositions.get(j);
-                    double dx = v1.getX() - v2.getX();
-                    double dy = v1.getY() - v2.getY();
-                    double distSq = dx * dx + dy * dy;
-                    double dist = Math.sqrt(distSq);
-
-                    if (dist < 0.1) dist = 0.1;
-                    double force = repulsionStrength / dist;
-
-                    dx = (dx / dist) * force;
-                    dy = (dy / dist) * force;
-
-                    forces.get(i).x += dx;
-                    forces.get(i).y += dy;
-                    forces.get(j).x -= dx;
-                    forces.get(j).y -= dy;
-                }
-            }
-
-            // Siły przyciągania tylko dla krawędzi (z ograniczeniem dla dużych grafów)
-            List<Integer>[] neighbors = graph.getNeighbors();
-            for (int i = 0; i < vertexCount; i++) {
-                Point2D v1 = vertexPositions.get(i);
-                for (int neighbor : neighbors[i]) {
-                    if (neighbor > i) {
-                        Point2D v2 = vertexPositions.get(neighbor);
-                        double dx = v1.getX() - v2.getX();
-                        double dy = v1.getY() - v2.getY();
-                        double dist = Math.sqrt(dx * dx + dy * dy);
-
-                        if (dist > 0.1) {
-                            dx *= attractionStrength;
-                            dy *= attractionStrength;
-
-                            forces.get(i).x -= dx;
-                            forces.get(i).y -= dy;
-                            forces.get(neighbor).x += dx;
-                            forces.get(neighbor).y += dy;
-                        }
-                    }
-                }
-            }
-
-            // Zastosuj siły z ograniczeniem
-            double maxMove = temperature * 2;
-            for (int i = 0; i < vertexCount; i++) {
-                Point2D pos = vertexPositions.get(i);
-                Point2D.Double force = forces.get(i);
-
-                // Ograniczenie maksymalnego ruchu
-                double magnitude = Math.sqrt(force.x * force.x + force.y * force.y);
-                if (magnitude > maxMove) {
-                    force.x = (force.x / magnitude) * maxMove;
-                    force.y = (force.y / magnitude) * maxMove;
-                }
-
-                // Zachowaj w granicach z większym marginesem
-                double margin = vertexCount > 10000 ? 0.05 : 0.1;
-                double newX = Math.min(Math.max(width * margin, pos.getX() + force.x), width * (1 - margin));
-                double newY = Math.min(Math.max(height * margin, pos.getY() + force.y), height * (1 - margin));
-                pos.setLocation(newX, newY);
-            }
+    // Układ siłowy liczony w tle; do tego czasu widoczny jest układ początkowy, a potem kolejne etapy
+    private void startForceDirectedLayout(int width, int height, int vertexCount) {
+        // Liczba kroków na każdym poziomie hierarchii ForceLayout
+        int iterations = vertexCount > 20000 ? 20 : vertexCount > 5000 ? 30 : 50;
 
-            temperature *= coolingFactor;
-        }
+        cancelLayout();
+        layoutWorker = new LayoutWorker(width, height, vertexCount, iterations);
+        layoutWorker.execute();
     }
 
-    private void applyAdditionalSpacing(int width, int height, int vertexCount) {
-        // Dodatkowe rozproszenie dla bardzo dużych grafów
-        Map<Integer, Point2D.Double> adjustments = new HashMap<>();
-        for (int i = 0; i < vertexCount; i++) {
-            adjustments.put(i, new Point2D.Double(0, 0));
-        }
-
-        // Znajdź obszary o dużej gęstości i je rozproś
-        double gridSize = Math.min(width, height) / 20.0;
-        Map<String, Integer> densityMap = new HashMap<>();
-
-        // Policz gęstość w siatce
-        for (Point2D pos : vertexPositions.values()) {
-            int gridX = (int) (pos.getX() / gridSize);
-            int gridY = (int) (pos.getY() / gridSize);
-            String key = gridX + "," + gridY;
-            densityMap.put(key, densityMap.getOrDefault(key, 0) + 1);
-        }
-
-        // Rozproś wierzchołki w gęstych obszarach
-        Random rand = new Random(123);
-        for (int i = 0; i < vertexCount; i++) {
-            Point2D pos = vertexPositions.get(i);
-            int gridX = (int) (pos.getX() / gridSize);
-            int gridY = (int) (pos.getY() / gridSize);
-            String key = gridX + "," + gridY;
-
-            int density = densityMap.getOrDefault(key, 0);
-            if (density > 5) { // Jeśli obszar jest gęsty
-                double spreadForce = Math.min(50, density * 2);
-                double angle = rand.nextDouble() * 2 * Math.PI;
-                double dx = Math.cos(angle) * spreadForce;
-                double dy = Math.sin(angle) * spreadForce;
-
-                double newX = Math.min(Math.max(width * 0.05, pos.getX() + dx), width * 0.95);
-                double newY = Math.min(Math.max(height * 0.05, pos.getY() + dy), height * 0.95);
-                pos.setLocation(newX, newY);
-            }
+    private void cancelLayout() {
+        if (layoutWorker != null) {
+            layoutWorker.layout.cancel();
+            layoutWorker = null;
         }
     }
 
-    private void applyLargeGraphSpacing(int width, int height, int vertexCount) {
-        // Podziel przestrzeń na sektory
-        int sectorsX = (int) Math.sqrt(vertexCount / 100);
-        int sectorsY = sectorsX;
-        
-        double sectorWidth = width / (double) sectorsX;
-        double sectorHeight = height / (double) sectorsY;
-        
-        // Przydziel wierzchołki do sektorów
-        Map<Integer, List<Integer>> sectors = new HashMap<>();
-        Random rand = new Random(42);
-        
-        for (int i = 0; i < vertexCount; i++) {
-            int sector = rand.nextInt(sectorsX * sectorsY);
-            sectors.computeIfAbsent(sector, k -> new ArrayList<>()).add(i);
-        }
-        
-        // Rozłóż wierzchołki w sektorach
-        for (Map.Entry<Integer, List<Integer>> entry : sectors.entrySet()) {
-            int sector = entry.getKey();
-            List<Integer> vertices = entry.getValue();
-            
-            int sectorX = sector % sectorsX;
-            int sectorY = sector / sectorsX;
-            
-            double startX = sectorX * sectorWidth;
-            double startY = sectorY * sectorHeight;
-            
-            // Rozłóż wierzchołki w sektorze
-            for (int i = 0; i < vertices.size(); i++) {
-                int vertex = vertices.get(i);
-                
-                double offsetX = rand.nextDouble() * sectorWidth * 0.8 + sectorWidth * 0.1;
-                double offsetY = rand.nextDouble() * sectorHeight * 0.8 + sectorHeight * 0.1;
-                
-                vertexPositions.get(vertex).setLocation(
-                    startX + offsetX,
-                    startY + offsetY
-                );
-            }
-        }
+    private void applyPositions(double[] x, double[] y) {
+        vertexPositions.setAll(x, y);
+        repaint();
     }
 
-    private void centerGraph(int width, int height) {
-        // Znajdź środek grafu
-        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
-        double maxX = Double.MIN_VALUE, maxY = Double.MIN_VALUE;
+    // Wyniki workera, który został zastąpiony lub przerwany (nowy graf, wczytane pozycje), są pomijane
+    private class LayoutWorker extends SwingWorker<Boolean, double[][]> {
+        private final ForceLayout layout;
+        private final double[] x;
+        private final double[] y;
+        private final int iterations;
+
+        LayoutWorker(int width, int height, int vertexCount, int iterations) {
+            this.iterations = iterations;
+            x = vertexPositions.getXs().clone();
+            y = vertexPositions.getYs().clone();
+
+            // Wielopoziomowy układ z odpychaniem wszystkich par (Barnes-Hut) i przyciąganiem wzdłuż krawędzi
+            layout = new ForceLayout(graph.getAdjacency(), x, y, width, height);
+            layout.setMargin(vertexCount > 10000 ? 0.05 : 0.1);
+            layout.setListener((snapshotX, snapshotY) -> publish(new double[][]{snapshotX, snapshotY}));
+        }
 
-        for (Point2D pos : vertexPositions.values()) {
-            minX = Math.min(minX, pos.getX());
-            minY = Math.min(minY, pos.getY());
-            maxX = Math.max(maxX, pos.getX());
-            maxY = Math.max(maxY, pos.getY());
+        @Override
+        protected Boolean doInBackground() {
+            return layout.run(iterations);
         }
 
-        double offsetX = (width - (maxX + minX)) / 2;
-        double offsetY = (height - (maxY + minY)) / 2;
+        @Override
+        protected void process(List<double[][]> chunks) {
+            if (layoutWorker != this) return;
+            double[][] latest = chunks.get(chunks.size() - 1);
+            applyPositions(latest[0], latest[1]);
+        }
 
-        // Przesuń wszystkie wierzchołki
-        for (Point2D pos : vertexPositions.values()) {
-            pos.setLocation(pos.getX() + offsetX, pos.getY() + offsetY);
+        @Override
+        protected void done() {
+            if (layoutWorker != this) return;
+            layoutWorker = null;
+            try {
+                if (get()) {
+                    applyPositions(x, y);
+                }
+            } catch (InterruptedException | ExecutionException ex) {
+                // Układ zostaje bez zmian, błąd trafia do logu
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                PartitionLog.log(PartitionLog.Level.ERROR, "Błąd obliczania układu grafu: " + cause);
+            }
         }
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (graph == null) return;
+        if (graph == null || vertexPositions == null) return;
 
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -374,21 +234,24 @@ public class GraphPrePartitionPanel extends JPanel {
         drawVertices(g2d);
     }
 
-    public Map<Integer, Point2D> getVertexPositions() {
-        return new HashMap<>(vertexPositions);
+    // Bieżące pozycje (bez kopiowania); w trakcie układania są jeszcze zmieniane
+    public VertexPositions getVertexPositions() {
+        return vertexPositions;
     }
 
-    public void setVertexPositions(Map<Integer, Point2D> positions) {
+    public void setVertexPositions(VertexPositions positions) {
         if (positions != null) {
-            this.vertexPositions = new HashMap<>(positions);
+            cancelLayout();
+            this.vertexPositions = positions;
             layoutGenerated = true;
             repaint();
         }
     }
 
     public void clearVisualization() {
+        cancelLayout();
         this.graph = null;
-        this.vertexPositions.clear();
+        this.vertexPositions = null;
         this.layoutGenerated = false;
         resetView();
         revalidate();
@@ -440,18 +303,22 @@ public class GraphPrePartitionPanel extends JPanel {
 
     private void drawEdges(Graphics2D g2d) {
         g2d.setColor(EDGE_COLOR);
-        List<Integer>[] neighbors = graph.getNeighbors();
-
-        for (int i = 0; i < neighbors.length; i++) {
-            Point2D p1 = vertexPositions.get(i);
-            if (p1 == null) continue;
-
-            for (int neighbor : neighbors[i]) {
-                Point2D p2 = vertexPositions.get(neighbor);
-                if (p2 != null) {
+        CsrGraph adjacency = graph.getAdjacency();
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+        double[] x = vertexPositions.getXs();
+        double[] y = vertexPositions.getYs();
+
+        for (int i = 0; i < adjacency.getNumVertices(); i++) {
+            if (!vertexPositions.contains(i)) continue;
+
+            for (int e = offsets[i]; e < ends[i]; e++) {
+                int neighbor = targets[e];
+                if (vertexPositions.contains(neighbor)) {
                     g2d.drawLine(
-                            (int) p1.getX(), (int) p1.getY(),
-                            (int) p2.getX(), (int) p2.getY()
+                            (int) x[i], (int) y[i],
+                            (int) x[neighbor], (int) y[neighbor]
                     );
                 }
             }
@@ -461,22 +328,24 @@ public class GraphPrePartitionPanel extends JPanel {
     private void drawEdgesSimplified(Graphics2D g2d) {
         // Dla dużych grafów przy małym zoomie rysuj co n-tą krawędź
         g2d.setColor(new Color(200, 200, 200, 128)); // Półprzezroczyste krawędzie
-        List<Integer>[] neighbors = graph.getNeighbors();
+        CsrGraph adjacency = graph.getAdjacency();
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+        double[] x = vertexPositions.getXs();
+        double[] y = vertexPositions.getYs();
         int skipFactor = Math.max(1, (int)(graph.getNumVertices() / 5000));
 
-        for (int i = 0; i < neighbors.length; i += skipFactor) {
-            Point2D p1 = vertexPositions.get(i);
-            if (p1 == null) continue;
-
-            for (int neighbor : neighbors[i]) {
-                if (neighbor % skipFactor == 0) {
-                    Point2D p2 = vertexPositions.get(neighbor);
-                    if (p2 != null) {
-                        g2d.drawLine(
-                                (int) p1.getX(), (int) p1.getY(),
-                                (int) p2.getX(), (int) p2.getY()
-                        );
-                    }
+        for (int i = 0; i < adjacency.getNumVertices(); i += skipFactor) {
+            if (!vertexPositions.contains(i)) continue;
+
+            for (int e = offsets[i]; e < ends[i]; e++) {
+                int neighbor = targets[e];
+                if (neighbor % skipFactor == 0 && vertexPositions.contains(neighbor)) {
+                    g2d.drawLine(
+                            (int) x[i], (int) y[i],
+                            (int) x[neighbor], (int) y[neighbor]
+                    );
                 }
             }
         }
@@ -500,72 +369,27 @@ public class GraphPrePartitionPanel extends JPanel {
             g2d.setFont(g2d.getFont().deriveFont((float)(8 / Math.sqrt(zoomLevel))));
         }
 
-        for (Map.Entry<Integer, Point2D> entry : vertexPositions.entrySet()) {
-            Point2D pos = entry.getValue();
-            Integer vertexId = entry.getKey();
-
-            if (pos != null) {
-                // Rysuj wierzchołek
-                g2d.fillOval(
-                        (int) (pos.getX() - vertexSize/2),
-                        (int) (pos.getY() - vertexSize/2),
-                        vertexSize, vertexSize
-                );
-
-                // Rysuj numer wierzchołka jeśli zoom pozwala
-                if (showNumbers) {
-                    g2d.setColor(Color.BLACK);
-                    String label = String.valueOf(vertexId);
-                    g2d.drawString(label,
-                            (int) (pos.getX() + vertexSize/2 + 2),
-                            (int) (pos.getY() + vertexSize/2));
-                    g2d.setColor(VERTEX_COLOR);
-                }
-            }
-        }
-    }
+        double[] x = vertexPositions.getXs();
+        double[] y = vertexPositions.getYs();
+        for (int v = 0; v < vertexPositions.size(); v++) {
+            if (!vertexPositions.contains(v)) continue;
 
-private void applyMediumGraphSpacing(int width, int height, int vertexCount) {
-    // Podziel przestrzeń na sektory z zachowaniem proporcji prostokąta
-    int sectorsX = (int) Math.sqrt(vertexCount / 50);  // Więcej kolumn niż wierszy
-    int sectorsY = sectorsX / 2;  // Połowa wierszy dla efektu prostokąta
-    
-    double sectorWidth = width / (double) sectorsX;
-    double sectorHeight = height / (double) sectorsY;
-    
-    // Przydziel wierzchołki do sektorów
-    Map<Integer, List<Integer>> sectors = new HashMap<>();
-    Random rand = new Random(42);
-    
-    for (int i = 0; i < vertexCount; i++) {
-        int sector = rand.nextInt(sectorsX * sectorsY);
-        sectors.computeIfAbsent(sector, k -> new ArrayList<>()).add(i);
-    }
-    
-    // Rozłóż wierzchołki w sektorach
-    for (Map.Entry<Integer, List<Integer>> entry : sectors.entrySet()) {
-        int sector = entry.getKey();
-        List<Integer> vertices = entry.getValue();
-        
-        int sectorX = sector % sectorsX;
-        int sectorY = sector / sectorsX;
-        
-        double startX = sectorX * sectorWidth;
-        double startY = sectorY * sectorHeight;
-        
-        // Rozłóż wierzchołki w sektorze z większym rozproszeniem w poziomie
-        for (int i = 0; i < vertices.size(); i++) {
-            int vertex = vertices.get(i);
-            
-            // Większe rozproszenie w poziomie
-            double offsetX = rand.nextDouble() * sectorWidth * 0.9 + sectorWidth * 0.05;
-            double offsetY = rand.nextDouble() * sectorHeight * 0.7 + sectorHeight * 0.15;
-            
-            vertexPositions.get(vertex).setLocation(
-                startX + offsetX,
-                startY + offsetY
+            // Rysuj wierzchołek
+            g2d.fillOval(
+                    (int) (x[v] - vertexSize/2),
+                    (int) (y[v] - vertexSize/2),
+                    vertexSize, vertexSize
             );
+
+            // Rysuj numer wierzchołka jeśli zoom pozwala
+            if (showNumbers) {
+                g2d.setColor(Color.BLACK);
+                String label = String.valueOf(v);
+                g2d.drawString(label,
+                        (int) (x[v] + vertexSize/2 + 2),
+                        (int) (y[v] + vertexSize/2));
+                g2d.setColor(VERTEX_COLOR);
+            }
         }
     }
 }
-}
\ No newline at end of file
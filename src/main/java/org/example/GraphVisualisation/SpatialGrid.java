@@ -0,0 +1,138 @@
+package org.example.GraphVisualisation;
+
+import org.example.model.VertexPositions;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Indeks przestrzenny pozycji wierzchołków: równomierna siatka kwadratowych komórek nad prostokątem
+ * otaczającym układ, zapisana jak CSR (cellStart[] + cellVertices[] posortowane kubełkowo po komórkach).
+ * Zapytanie o prostokąt przegląda tylko komórki, które go przecinają, więc kosztuje O(widoczne + brzeg)
+ * zamiast przeglądania wszystkich wierzchołków. Siatka odpowiada jednej wersji pozycji - po zmianie
+ * układu (VertexPositions.getVersion()) trzeba zbudować ją od nowa.
+ */
+final class SpatialGrid {
+    // Docelowa średnia liczba wierzchołków w komórce
+    private static final int VERTICES_PER_CELL = 4;
+
+    private final VertexPositions positions;
+    private final int version;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellVertices;
+
+    private SpatialGrid(VertexPositions positions, double minX, double minY, double cellSize,
+                        int cols, int rows, int[] cellStart, int[] cellVertices) {
+        this.positions = positions;
+        this.version = positions.getVersion();
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.cellStart = cellStart;
+        this.cellVertices = cellVertices;
+    }
+
+    static SpatialGrid build(VertexPositions positions) {
+        double[] x = positions.getXs();
+        double[] y = positions.getYs();
+        int n = positions.size();
+
+        int placed = 0;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            if (!positions.contains(v)) continue;
+            minX = Math.min(minX, x[v]);
+            minY = Math.min(minY, y[v]);
+            maxX = Math.max(maxX, x[v]);
+            maxY = Math.max(maxY, y[v]);
+            placed++;
+        }
+        if (placed == 0) {
+            return new SpatialGrid(positions, 0, 0, 1, 1, 1, new int[2], new int[0]);
+        }
+
+        // Bok komórki tak, by komórek było ok. placed / VERTICES_PER_CELL; dolne ograniczenie chroni
+        // przed tysiącami komórek wzdłuż krótszego boku przy bardzo płaskim układzie
+        double w = maxX - minX;
+        double h = maxY - minY;
+        int targetCells = Math.max(1, placed / VERTICES_PER_CELL);
+        double cellSize = Math.max(Math.sqrt(w * h / targetCells), Math.max(w, h) / targetCells);
+        if (cellSize <= 0) {
+            cellSize = 1;
+        }
+        int cols = (int) (w / cellSize) + 1;
+        int rows = (int) (h / cellSize) + 1;
+
+        // Sortowanie kubełkowe wierzchołków po komórkach
+        int[] cellOf = new int[n];
+        int[] cellStart = new int[cols * rows + 1];
+        for (int v = 0; v < n; v++) {
+            if (!positions.contains(v)) {
+                cellOf[v] = -1;
+                continue;
+            }
+            int col = Math.min((int) ((x[v] - minX) / cellSize), cols - 1);
+            int row = Math.min((int) ((y[v] - minY) / cellSize), rows - 1);
+            cellOf[v] = row * cols + col;
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < cols * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] next = new int[cols * rows];
+        System.arraycopy(cellStart, 0, next, 0, next.length);
+        int[] cellVertices = new int[placed];
+        for (int v = 0; v < n; v++) {
+            if (cellOf[v] >= 0) {
+                cellVertices[next[cellOf[v]]++] = v;
+            }
+        }
+        return new SpatialGrid(positions, minX, minY, cellSize, cols, rows, cellStart, cellVertices);
+    }
+
+    // Czy siatka opisuje dokładnie te pozycje w ich obecnej wersji
+    boolean isCurrent(VertexPositions positions) {
+        return this.positions == positions && positions.getVersion() == version;
+    }
+
+    /**
+     * Zapisuje do result numery wierzchołków leżących w bounds (semantyka Rectangle2D.contains)
+     * i zwraca ich liczbę. Tablica result musi mieć co najmniej positions.size() elementów.
+     */
+    int query(Rectangle2D bounds, int[] result) {
+        int firstCol = Math.max(cellIndex(bounds.getMinX() - minX), 0);
+        int lastCol = Math.min(cellIndex(bounds.getMaxX() - minX), cols - 1);
+        int firstRow = Math.max(cellIndex(bounds.getMinY() - minY), 0);
+        int lastRow = Math.min(cellIndex(bounds.getMaxY() - minY), rows - 1);
+
+        double[] x = positions.getXs();
+        double[] y = positions.getYs();
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int c = row * cols + firstCol; c <= row * cols + lastCol; c++) {
+                for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                    int v = cellVertices[i];
+                    if (bounds.contains(x[v], y[v])) {
+                        result[count++] = v;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // Numer komórki wzdłuż osi; poza zakresem int daje wartość, która po przycięciu pomija całą oś
+    private int cellIndex(double offset) {
+        double cell = Math.floor(offset / cellSize);
+        if (cell < -1) return -1;
+        if (cell > Integer.MAX_VALUE - 1) return Integer.MAX_VALUE - 1;
+        return (int) cell;
+    }
+}
@@ -4,6 +4,10 @@ import javax.swing.*;
 
 public class Main {
     public static void main(String[] args) {
+        // Z argumentami: tryb wsadowy bez okna (BatchRunner nie ładuje AWT)
+        if (args.length > 0) {
+            System.exit(BatchRunner.run(args));
+        }
         SwingUtilities.invokeLater(() -> {
             MainFrame frame = new MainFrame();
             // Tutaj dodaj kod zmieniający ikonę
@@ -1,4 +1,5 @@
 package org.example;
+import org.example.model.CsrGraph;
 import org.example.model.PartitionResult;
 import org.example.model.Graph;
 import org.example.io.GraphLoaderCsrrg;
@@ -10,15 +11,13 @@ import java.awt.*;
 import java.io.File;
 import java.util.List;
 import org.example.model.GraphException;
-import java.awt.geom.Point2D;
-import java.util.Map;
 
 public class MainFrame extends JFrame {
     private List<PartitionResult.PartitionInfo> partitionResults;
     private DetailsUI detailsUI;
     private MainUI mainUI;
     private Graph graph;
-    private List<Integer>[] originalNeighbors;
+    private CsrGraph originalNeighbors;
     private PartitionUI partitionUI;
     
     // Dodaj pola dla CardLayout
@@ -56,13 +55,17 @@ public class MainFrame extends JFrame {
         // Aktualizacja detailsUI...
     }
 
+    // Graf podzielony w tle przez MainUI (kopia wczytanego grafu) zastępuje go w widokach szczegółów i podziału
+    public void setPartitionedGraph(Graph partitionedGraph) {
+        this.graph = partitionedGraph;
+    }
+
     private Graph originalGraph = null;
 
 
     private void copyGraphWithPositions(Graph source, Graph target) {
-        // Skopiuj pozycje wierzchołków
-        Map<Integer, Point2D> positions = source.getAllVertexPositions();
-        target.setAllVertexPositions(positions);
+        // Pozycje wierzchołków są współdzielone, nie kopiowane
+        target.setVertexPositions(source.getVertexPositions());
     }
 
     public MainFrame() {
@@ -242,7 +245,7 @@ public class MainFrame extends JFrame {
                     return;
                 }
                     // Zachowaj oryginalną listę sąsiedztwa zaraz po wczytaniu
-                    originalNeighbors = graph.copyNeighbors();
+                    originalNeighbors = graph.getAdjacency();
                     // NIE twórz tutaj obiektu DetailsUI - zostanie on utworzony przy kliknięciu przycisku Details
                     mainUI.setGraph(graph);
                     JOptionPane.showMessageDialog(this,
@@ -283,7 +286,7 @@ public class MainFrame extends JFrame {
                 try {
                     graph = GraphLoaderBin.loadGraph(selectedFile.getPath());
                     // Zachowaj oryginalną listę sąsiedztwa zaraz po wczytaniu
-                    originalNeighbors = graph.copyNeighbors();
+                    originalNeighbors = graph.getAdjacency();
                     // NIE twórz tutaj obiektu DetailsUI
                     mainUI.setGraph(graph);
                     JOptionPane.showMessageDialog(this,
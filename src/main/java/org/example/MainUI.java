@@ -1,7 +1,10 @@
 package org.example;
 import org.example.algorithm.GraphPartitioner;
+import org.example.algorithm.PartitionLog;
+import org.example.algorithm.PartitionMonitor;
 import org.example.model.PartitionResult;
 import org.example.model.Graph;
+import org.example.model.VertexPositions;
 import javax.swing.*;
 import javax.swing.plaf.FontUIResource;
 import javax.swing.text.StyleContext;
@@ -11,9 +14,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.util.List;
 import org.example.GraphVisualisation.GraphPrePartitionPanel;
-import java.awt.geom.Point2D;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class MainUI {
     private JPanel MainPage;
@@ -34,9 +35,12 @@ public class MainUI {
     private MainFrame mainFrame;
     private DetailsUI detailsUI;  // lub dostęp przez mainFrame.getDetailsUI()
     // ... istniejące pola ...
-    private Map<Integer, Point2D> savedPrePartitionPositions = new HashMap<>();
-    private Map<Integer, Point2D> savedPostPartitionPositions = new HashMap<>();
+    // Pozycje panelu przed podziałem przekazywane przez referencję (null - brak)
+    private VertexPositions savedPrePartitionPositions;
     private JPanel graphPrePartitionPanelPlaceholder;
+    // Trwający podział (null, gdy nic nie jest liczone) i tekst przycisku poza podziałem
+    private PartitionWorker partitionWorker;
+    private String buttonPodzielText;
 
     public JButton getdetailsButton() {
         return detailsButton;
@@ -60,6 +64,7 @@ public class MainUI {
         SpinnerNumberModel spinnerMarginesModel = new SpinnerNumberModel(10, 0, 100, 1);
         spinnerMargines.setModel(spinnerMarginesModel);
         
+        buttonPodzielText = buttonPodziel.getText();
         buttonPodziel.addActionListener(e -> onPodzielButtonClick());
         resetujWidokButton.addActionListener(e -> onResetujWidokButtonClick());
     }
@@ -72,21 +77,46 @@ public class MainUI {
     }
 
     private void onPodzielButtonClick() {
-        try {
-            if (graph == null) {
-                JOptionPane.showMessageDialog(MainPage,
-                        "Najpierw wygeneruj lub wczytaj graf",
-                        "Brak grafu",
-                        JOptionPane.WARNING_MESSAGE);
-                return;
-            }
+        // Kliknięcie w trakcie podziału przerywa go (wykonane cięcia zostają)
+        if (partitionWorker != null) {
+            partitionWorker.requestCancel();
+            buttonPodziel.setEnabled(false);
+            successfulCuts.setText("Przerywanie...");
+            return;
+        }
+
+        if (graph == null) {
+            JOptionPane.showMessageDialog(MainPage,
+                    "Najpierw wygeneruj lub wczytaj graf",
+                    "Brak grafu",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        int margin = (Integer) spinnerMargines.getValue();
+        int cuts = (Integer) spinnerNumCuts.getValue();
 
-            int margin = (Integer) spinnerMargines.getValue();
-            int cuts = (Integer) spinnerNumCuts.getValue();
+        // Podział liczony poza EDT na kopii grafu: okno pozostaje aktywne, a panele czytają w tym czasie
+        // niezmieniony oryginał (podział zmienia listę sąsiedztwa i tablice grafu)
+        Graph copy = new Graph(graph);
+        copy.setVertexPositions(graph.getVertexPositions());
+        partitionWorker = new PartitionWorker(graph, copy, cuts, margin);
+        setPartitionRunning(true);
+        partitionWorker.execute();
+    }
 
-            // Get results using the static method
-            List<PartitionResult.PartitionInfo> results = PartitionResult.performPartitioning(graph, cuts, margin);
+    private void setPartitionRunning(boolean running) {
+        buttonPodziel.setText(running ? "Przerwij" : buttonPodzielText);
+        buttonPodziel.setEnabled(true);
+        spinnerNumCuts.setEnabled(!running);
+        spinnerMargines.setEnabled(!running);
+        resetujWidokButton.setEnabled(!running);
+        detailsButton.setEnabled(!running);
+        postPartitionButton.setEnabled(!running);
+    }
 
+    private void showPartitionResults(List<PartitionResult.PartitionInfo> results, boolean cancelled) {
+        try {
             if (results != null && !results.isEmpty()) {
                 // Update UI with results
                 mainFrame.updatePartitionResult(results);
@@ -104,6 +134,18 @@ public class MainUI {
                 isGraphBalanced.setForeground(isConnected ? Color.GREEN : Color.RED);
                 buttonPodziel.setEnabled(false);
 
+                if (cancelled) {
+                    JOptionPane.showMessageDialog(MainPage,
+                            "Podział przerwany po " + results.size() + " cięciach",
+                            "Podział przerwany",
+                            JOptionPane.INFORMATION_MESSAGE);
+                }
+            } else if (cancelled) {
+                successfulCuts.setText("...");
+                JOptionPane.showMessageDialog(MainPage,
+                        "Podział przerwany przed pierwszym cięciem",
+                        "Podział przerwany",
+                        JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(MainPage,
                         "Nie udało się podzielić grafu z podanymi parametrami",
@@ -112,7 +154,7 @@ public class MainUI {
             }
 
         } catch (Exception ex) {
-            ex.printStackTrace();
+            PartitionLog.log(PartitionLog.Level.ERROR, "Błąd podziału grafu: " + ex);
             JOptionPane.showMessageDialog(MainPage,
                     "Wystąpił błąd podczas podziału grafu: " + ex.getMessage(),
                     "Błąd",
@@ -120,6 +162,84 @@ public class MainUI {
         }
     }
 
+    // Podział kopii grafu w tle: postęp trafia do etykiety liczby cięć, podzielona kopia i wynik
+    // są przekazywane do UI dopiero w done() (na EDT)
+    private class PartitionWorker extends SwingWorker<List<PartitionResult.PartitionInfo>, String> {
+        private final Graph source;
+        private final Graph target;
+        private final int cuts;
+        private final int margin;
+        private volatile boolean cancelRequested;
+        private volatile int currentCut;
+        private volatile PartitionMonitor.Phase currentPhase;
+
+        PartitionWorker(Graph source, Graph target, int cuts, int margin) {
+            this.source = source;
+            this.target = target;
+            this.cuts = cuts;
+            this.margin = margin;
+        }
+
+        void requestCancel() {
+            cancelRequested = true;
+        }
+
+        @Override
+        protected List<PartitionResult.PartitionInfo> doInBackground() {
+            return PartitionResult.performPartitioning(target, cuts, margin, new PartitionMonitor() {
+                @Override
+                public void cutStarted(int cut, int totalCuts) {
+                    currentCut = cut;
+                }
+
+                @Override
+                public void phaseStarted(Phase phase) {
+                    if (phase == currentPhase) return;
+                    currentPhase = phase;
+                    publish(currentCut > 0
+                            ? "Cięcie " + currentCut + "/" + cuts + ": " + phase.getDescription()
+                            : phase.getDescription());
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return cancelRequested;
+                }
+            });
+        }
+
+        @Override
+        protected void process(List<String> chunks) {
+            if (!cancelRequested) {
+                successfulCuts.setText(chunks.get(chunks.size() - 1));
+            }
+        }
+
+        @Override
+        protected void done() {
+            partitionWorker = null;
+            setPartitionRunning(false);
+            if (source != graph) {
+                // W międzyczasie wczytano inny graf, wynik dotyczy poprzedniego
+                return;
+            }
+            try {
+                List<PartitionResult.PartitionInfo> results = get();
+                // Od teraz UI pracuje na podzielonej kopii (także po przerwaniu, z wykonanymi cięciami)
+                graph = target;
+                mainFrame.setPartitionedGraph(target);
+                showPartitionResults(results, cancelRequested);
+            } catch (InterruptedException | ExecutionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                PartitionLog.log(PartitionLog.Level.ERROR, "Błąd podziału grafu: " + cause);
+                JOptionPane.showMessageDialog(MainPage,
+                        "Wystąpił błąd podczas podziału grafu: " + cause.getMessage(),
+                        "Błąd",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
     private void onResetujWidokButtonClick() {
         try {
             if (graph != null) {
@@ -132,8 +252,7 @@ public class MainUI {
                 spinnerMargines.setValue(10);
 
                 // Wyczyść zapisane pozycje
-                savedPrePartitionPositions.clear();
-                savedPostPartitionPositions.clear();
+                savedPrePartitionPositions = null;
 
                 if (graphPrePartitionPanelPlaceholder != null) {
                     ((GraphPrePartitionPanel)graphPrePartitionPanelPlaceholder).clearVisualization();
@@ -144,7 +263,7 @@ public class MainUI {
                 postPartitionButton.setEnabled(false);
             }
         } catch (Exception ex) {
-            ex.printStackTrace();
+            PartitionLog.log(PartitionLog.Level.ERROR, "Błąd resetowania widoku: " + ex);
             JOptionPane.showMessageDialog(MainPage,
                     "Nie wybrano żadnego grafu:" + ex.getMessage(),
                     "Błąd",
@@ -156,6 +275,9 @@ public class MainUI {
 
     // Method to set the graph (call it after generating/loading the graph)
     public void setGraph(Graph graph) {
+        if (partitionWorker != null && graph != this.graph) {
+            partitionWorker.requestCancel();
+        }
         this.graph = graph;
 
         if (graph != null) {
@@ -168,7 +290,7 @@ public class MainUI {
 
             if (graphPrePartitionPanelPlaceholder != null) {
                 // Sprawdź czy mamy zapisane pozycje pasujące do tego grafu
-                if (!savedPrePartitionPositions.isEmpty() &&
+                if (savedPrePartitionPositions != null &&
                         savedPrePartitionPositions.size() == graph.getNumVertices()) {
                     ((GraphPrePartitionPanel)graphPrePartitionPanelPlaceholder).setVertexPositions(savedPrePartitionPositions);
                 }
@@ -187,7 +309,7 @@ public class MainUI {
         if (originalGraph != null) {
             this.graph = originalGraph; // używamy oryginalnego grafu, nie jego kopii
             if (graphPrePartitionPanelPlaceholder != null) {
-                if (!savedPrePartitionPositions.isEmpty() &&
+                if (savedPrePartitionPositions != null &&
                         savedPrePartitionPositions.size() == originalGraph.getNumVertices()) {
                     ((GraphPrePartitionPanel)graphPrePartitionPanelPlaceholder).setVertexPositions(savedPrePartitionPositions);
                 }
@@ -2,12 +2,10 @@ package org.example;
 import org.example.GraphVisualisation.GraphPostPartitionPanel;
 import org.example.model.PartitionResult;
 import org.example.model.Graph;  // Dodaj ten import w PartitionUI
+import org.example.model.VertexPositions;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
-import java.awt.geom.Point2D;
 
 public class PartitionUI {
     private JPanel visualisationPanel;
@@ -17,14 +15,15 @@ public class PartitionUI {
     private JLabel viewZoomInfo;
     private JPanel graphDrawPanel;
     private List<PartitionResult.PartitionInfo> currentResults;
-    private Map<Integer, Point2D> savedPositions = new HashMap<>();
+    // Pozycje panelu (ten sam obiekt, nie kopia), przywracane przy ponownym otwarciu tego samego grafu
+    private VertexPositions savedPositions;
 
     public void setGraph(Graph graph, List<PartitionResult.PartitionInfo> partitions) {
         if (graphPostPartitionPanelPlaceholder instanceof GraphPostPartitionPanel) {
             GraphPostPartitionPanel panel = (GraphPostPartitionPanel) graphPostPartitionPanelPlaceholder;
 
             // Ustaw zapisane pozycje tylko jeśli są dostępne i pasują do grafu
-            if (!savedPositions.isEmpty() && graph != null &&
+            if (savedPositions != null && graph != null &&
                     savedPositions.size() == graph.getNumVertices()) {
                 panel.setVertexPositions(savedPositions);
             }
@@ -38,7 +37,7 @@ public class PartitionUI {
 
     public void clearVisualization() {
         if (graphPostPartitionPanelPlaceholder != null) {
-            savedPositions.clear(); // Wyczyść zapisane pozycje
+            savedPositions = null; // Wyczyść zapisane pozycje
             graphPostPartitionPanelPlaceholder.removeAll();
             graphPostPartitionPanelPlaceholder.revalidate();
             graphPostPartitionPanelPlaceholder.repaint();
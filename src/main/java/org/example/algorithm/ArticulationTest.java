@@ -0,0 +1,258 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Tells whether removing a vertex disconnects its group (vertices with the same groupAssignment label).
+ *
+ * compute() finds the articulation points and biconnected blocks of every group reachable from a vertex list with
+ * one iterative DFS with low-links, O(size + edges). Moves reported through moved() only make a few answers stale:
+ * a vertex that is not an articulation point keeps that status while no vertex of its block left the group and
+ * no moved vertex is its neighbor (all its edges stay in its block, and the block minus the vertex stays
+ * connected). Stale vertices get a bounded local search from their same-group neighbors; if it cannot decide,
+ * the articulation points are recomputed, so the batch of moves since the last computation costs one DFS.
+ * Answers are exact, except that a vertex reconnected around by vertices moved into its group since the last
+ * computation may still be reported as a cut vertex.
+ */
+class ArticulationTest {
+    // Stale vertices are settled by a local search of at most this many vertices before recomputing
+    private static final int LOCAL_SEARCH_LIMIT = 256;
+
+    private final int[] offsets;
+    private final int[] ends;
+    private final int[] targets;
+    private final int[] groupAssignment;
+
+    // DFS state: discovery times grow across computations, so disc[v] >= firstTime means v was discovered
+    // by the current one
+    private final int[] disc;
+    private final int[] low;
+    private final int[] edge;
+    private final int[] stack;
+    private final int[] blockStack;
+    private int time;
+    private int firstTime;
+
+    // Result of the last computation: cutEpoch[v] == epoch marks articulation points, block[v] is the block of
+    // a vertex that is not one (the root of a single-vertex group gets a block of its own)
+    private final int[] block;
+    private final int[] cutEpoch;
+    // Moves since then: vertices next to a move and blocks a vertex left are stale
+    private final int[] staleEpoch;
+    private final int[] staleBlockEpoch;
+    private boolean allStale;
+    private boolean changed;
+    private int epoch;
+
+    // Local search marks
+    private final int[] visitedEpoch;
+    private final int[] targetEpoch;
+    private int searchEpoch;
+
+    // Vertices of the last computation
+    private int[] vertices;
+    private int count;
+
+    ArticulationTest(CsrGraph adjacency, int[] groupAssignment) {
+        int numVertices = adjacency.getNumVertices();
+        this.offsets = adjacency.getOffsets();
+        this.ends = adjacency.getEnds();
+        this.targets = adjacency.getTargets();
+        this.groupAssignment = groupAssignment;
+        this.disc = new int[numVertices];
+        this.low = new int[numVertices];
+        this.edge = new int[numVertices];
+        this.stack = new int[numVertices];
+        this.blockStack = new int[numVertices];
+        this.block = new int[numVertices];
+        this.cutEpoch = new int[numVertices];
+        this.staleEpoch = new int[numVertices];
+        this.staleBlockEpoch = new int[numVertices];
+        this.visitedEpoch = new int[numVertices];
+        this.targetEpoch = new int[numVertices];
+    }
+
+    /**
+     * Computes the articulation points of the groups of vertices[0..count). The array is read again when stale
+     * answers force a recomputation, so it must list the same vertices until the next call.
+     */
+    void compute(int[] vertices, int count) {
+        this.vertices = vertices;
+        this.count = count;
+        recompute();
+    }
+
+    // Must be called after v changed its group
+    void moved(int v) {
+        changed = true;
+        if (cutEpoch[v] == epoch) {
+            // v belonged to several blocks, which ones is not recorded
+            allStale = true;
+        } else {
+            staleBlockEpoch[block[v]] = epoch;
+        }
+        staleEpoch[v] = epoch;
+        for (int i = offsets[v]; i < ends[v]; i++) {
+            staleEpoch[targets[i]] = epoch;
+        }
+    }
+
+    // True if removing v splits its group (v itself is still labelled as a member)
+    boolean isCutVertex(int v) {
+        if (isStale(v)) {
+            int local = localSearch(v);
+            if (local != 0) return local > 0;
+            recompute();
+        }
+        return cutEpoch[v] == epoch;
+    }
+
+    private boolean isStale(int v) {
+        return changed && (allStale || staleEpoch[v] == epoch || staleBlockEpoch[block[v]] == epoch);
+    }
+
+    // ====================== LOW-LINK DFS ======================
+
+    private void recompute() {
+        nextEpoch();
+        if (time > Integer.MAX_VALUE - disc.length) {
+            Arrays.fill(disc, 0);
+            time = 0;
+        }
+        time++;
+        firstTime = time;
+        int blocks = 0;
+
+        for (int k = 0; k < count; k++) {
+            int root = vertices[k];
+            if (disc[root] >= firstTime) continue;
+            GraphPartitioner.checkCancelled();
+            blocks = searchFrom(root, blocks);
+        }
+    }
+
+    // Tarjan's articulation points and blocks of root's group; returns the next free block id
+    private int searchFrom(int root, int blocks) {
+        int group = groupAssignment[root];
+        int top = 0;
+        int blockTop = 0;
+        int rootChildren = 0;
+        disc[root] = low[root] = time++;
+        edge[root] = offsets[root];
+        stack[top++] = root;
+        block[root] = blocks++;
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            int parent = top > 1 ? stack[top - 2] : -1;
+
+            if (edge[u] < ends[u]) {
+                int w = targets[edge[u]++];
+                if (groupAssignment[w] != group || w == parent) continue;
+                if (disc[w] >= firstTime) {
+                    low[u] = Math.min(low[u], disc[w]);
+                } else {
+                    disc[w] = low[w] = time++;
+                    edge[w] = offsets[w];
+                    stack[top++] = w;
+                    blockStack[blockTop++] = w;
+                }
+                continue;
+            }
+
+            // u is finished
+            top--;
+            if (parent == -1) break;
+            low[parent] = Math.min(low[parent], low[u]);
+            if (low[u] >= disc[parent]) {
+                // parent separates u's subtree from the rest: the subtree part still on the stack plus parent is a block
+                int id = blocks++;
+                int x;
+                do {
+                    x = blockStack[--blockTop];
+                    block[x] = id;
+                } while (x != u);
+
+                if (parent != root) {
+                    cutEpoch[parent] = epoch;
+                } else if (++rootChildren == 1) {
+                    block[root] = id;
+                } else {
+                    cutEpoch[root] = epoch;
+                }
+            }
+        }
+        return blocks;
+    }
+
+    // ====================== LOCAL SEARCH ======================
+
+    /**
+     * Breadth-first search from one of v's same-group neighbors that stops when it has found all of them.
+     * Returns -1 if v is not a cut vertex, 1 if it is and 0 if the search hit its limit.
+     */
+    private int localSearch(int v) {
+        int group = groupAssignment[v];
+        nextSearchEpoch();
+
+        // Mark v's neighbors in the group as the vertices that must stay reachable from each other
+        int start = -1;
+        int remaining = 0;
+        for (int i = offsets[v]; i < ends[v]; i++) {
+            int w = targets[i];
+            if (groupAssignment[w] == group && targetEpoch[w] != searchEpoch) {
+                targetEpoch[w] = searchEpoch;
+                remaining++;
+                start = w;
+            }
+        }
+        if (remaining <= 1) return -1;
+
+        // The DFS stack is free between computations and serves as the queue
+        int head = 0;
+        int tail = 0;
+        stack[tail++] = start;
+        visitedEpoch[start] = searchEpoch;
+        visitedEpoch[v] = searchEpoch; // never walk through the removed vertex
+        remaining--;
+
+        while (head < tail) {
+            if (head >= LOCAL_SEARCH_LIMIT) return 0;
+            int u = stack[head++];
+            for (int i = offsets[u]; i < ends[u]; i++) {
+                int w = targets[i];
+                if (visitedEpoch[w] != searchEpoch && groupAssignment[w] == group) {
+                    visitedEpoch[w] = searchEpoch;
+                    if (targetEpoch[w] == searchEpoch && --remaining == 0) {
+                        return -1;
+                    }
+                    stack[tail++] = w;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(cutEpoch, 0);
+            Arrays.fill(staleEpoch, 0);
+            Arrays.fill(staleBlockEpoch, 0);
+            epoch = 1;
+        }
+        allStale = false;
+        changed = false;
+    }
+
+    private void nextSearchEpoch() {
+        searchEpoch++;
+        if (searchEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitedEpoch, 0);
+            Arrays.fill(targetEpoch, 0);
+            searchEpoch = 1;
+        }
+    }
+}
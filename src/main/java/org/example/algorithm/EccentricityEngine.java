@@ -0,0 +1,252 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Eccentricity and center search on unit-weight graphs.
+ * All BFS runs share preallocated buffers, so one engine must not be used by two threads at once.
+ */
+public class EccentricityEngine {
+
+    public enum CenterStrategy {
+        // BFS from every vertex of the component, exact eccentricities
+        EXACT,
+        // Three BFS sweeps, eccentricity estimated as max distance to the two found peripheral vertices
+        DOUBLE_SWEEP,
+        // Lower/upper eccentricity bounds refined by BFS sweeps until the center is proven (or the budget ends)
+        BOUNDING
+    }
+
+    private static final int DEFAULT_SWEEP_LIMIT = 64;
+
+    private final int[] offsets;
+    private final int[] ends;
+    private final int[] targets;
+
+    // Reusable BFS state; visitedEpoch[v] == epoch means dist[v] is valid for the current run
+    private final int[] dist;
+    private final int[] queue;
+    private final int[] visitedEpoch;
+    private int epoch;
+
+    // Number of reached vertices and the farthest vertex of the last run
+    private int lastReached;
+    private int lastFarthest;
+
+    // Bounds used by CenterStrategy.BOUNDING, allocated on first use
+    private int[] lower;
+    private int[] upper;
+
+    private int sweepLimit = DEFAULT_SWEEP_LIMIT;
+
+    public EccentricityEngine(CsrGraph adjacency) {
+        int numVertices = adjacency.getNumVertices();
+        this.offsets = adjacency.getOffsets();
+        this.ends = adjacency.getEnds();
+        this.targets = adjacency.getTargets();
+        this.dist = new int[numVertices];
+        this.queue = new int[numVertices];
+        this.visitedEpoch = new int[numVertices];
+        this.epoch = 0;
+    }
+
+    public void setSweepLimit(int sweepLimit) {
+        this.sweepLimit = Math.max(1, sweepLimit);
+    }
+
+    // ====================== BFS ======================
+
+    /**
+     * Runs BFS from source and returns its eccentricity (distance to the farthest reachable vertex).
+     * Distances of the run can be read with distance() until the next call.
+     */
+    public int bfs(int source) {
+        nextEpoch();
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        visitedEpoch[source] = epoch;
+        dist[source] = 0;
+
+        int farthest = source;
+        while (head < tail) {
+            int u = queue[head++];
+            int du = dist[u];
+            if (du > dist[farthest]) {
+                farthest = u;
+            }
+            for (int i = offsets[u]; i < ends[u]; i++) {
+                int v = targets[i];
+                if (visitedEpoch[v] != epoch) {
+                    visitedEpoch[v] = epoch;
+                    dist[v] = du + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        lastReached = tail;
+        lastFarthest = farthest;
+        return dist[farthest];
+    }
+
+    private void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitedEpoch, 0);
+            epoch = 1;
+        }
+    }
+
+    // Distance from the last BFS source, or -1 if v was not reached
+    public int distance(int v) {
+        return visitedEpoch[v] == epoch ? dist[v] : -1;
+    }
+
+    public int getLastFarthest() {
+        return lastFarthest;
+    }
+
+    public int getLastReached() {
+        return lastReached;
+    }
+
+    // ====================== CENTER SEARCH ======================
+
+    /**
+     * Finds a minimum-eccentricity vertex among vertices[0..count) (one connected component)
+     * and stores eccentricities (exact or estimated, depending on the strategy) in maxDistances.
+     * EXACT and DOUBLE_SWEEP resolve ties in favour of the vertex that comes first in the array;
+     * BOUNDING returns the first center it can prove (or the best one seen when the sweep limit is hit).
+     */
+    public int findCenter(int[] vertices, int count, int[] maxDistances, CenterStrategy strategy) {
+        if (count == 0) return -1;
+
+        switch (strategy) {
+            case DOUBLE_SWEEP:
+                return doubleSweepCenter(vertices, count, maxDistances);
+            case BOUNDING:
+                return boundingCenter(vertices, count, maxDistances);
+            default:
+                return exactCenter(vertices, count, maxDistances);
+        }
+    }
+
+    private int exactCenter(int[] vertices, int count, int[] maxDistances) {
+        int center = -1;
+        int minMaxDist = Integer.MAX_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            GraphPartitioner.checkCancelled();
+            int v = vertices[i];
+            maxDistances[v] = bfs(v);
+            if (maxDistances[v] < minMaxDist) {
+                minMaxDist = maxDistances[v];
+                center = v;
+            }
+        }
+        return center;
+    }
+
+    private int doubleSweepCenter(int[] vertices, int count, int[] maxDistances) {
+        // Sweep 1: any vertex -> farthest a
+        bfs(vertices[0]);
+        int a = lastFarthest;
+
+        // Sweep 2: a -> farthest b, remember d(a, v)
+        bfs(a);
+        int b = lastFarthest;
+        for (int i = 0; i < count; i++) {
+            maxDistances[vertices[i]] = dist[vertices[i]];
+        }
+
+        // Sweep 3: b, estimate ecc(v) = max(d(a, v), d(b, v))
+        bfs(b);
+        int center = -1;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int v = vertices[i];
+            maxDistances[v] = Math.max(maxDistances[v], dist[v]);
+            if (maxDistances[v] < best) {
+                best = maxDistances[v];
+                center = v;
+            }
+        }
+        return center;
+    }
+
+    private int boundingCenter(int[] vertices, int count, int[] maxDistances) {
+        if (lower == null) {
+            lower = new int[dist.length];
+            upper = new int[dist.length];
+        }
+        for (int i = 0; i < count; i++) {
+            lower[vertices[i]] = 0;
+            upper[vertices[i]] = Integer.MAX_VALUE;
+        }
+
+        // Vertices still able to beat the best known eccentricity are kept in candidates[0..active)
+        int[] candidates = new int[count];
+        System.arraycopy(vertices, 0, candidates, 0, count);
+        int active = count;
+
+        int center = -1;
+        int best = Integer.MAX_VALUE;
+
+        for (int sweep = 0; sweep < sweepLimit && active > 0; sweep++) {
+            GraphPartitioner.checkCancelled();
+            // Alternate between the most promising center and a peripheral vertex (the farthest one
+            // from the previous sweep), which tightens lower bounds of everything else
+            int source;
+            if (sweep % 2 == 1 && lower[lastFarthest] != upper[lastFarthest]) {
+                source = lastFarthest;
+            } else {
+                int pick = 0;
+                for (int i = 1; i < active; i++) {
+                    int v = candidates[i];
+                    int p = candidates[pick];
+                    if (lower[v] < lower[p] || (lower[v] == lower[p] && upper[v] < upper[p])) {
+                        pick = i;
+                    }
+                }
+                source = candidates[pick];
+            }
+            int ecc = bfs(source);
+            lower[source] = ecc;
+            upper[source] = ecc;
+
+            if (ecc < best || (ecc == best && source < center)) {
+                best = ecc;
+                center = source;
+            }
+
+            for (int i = 0; i < count; i++) {
+                int v = vertices[i];
+                int d = dist[v];
+                lower[v] = Math.max(lower[v], Math.max(d, ecc - d));
+                upper[v] = Math.min(upper[v], ecc + d);
+            }
+
+            // Drop vertices that are resolved or cannot have a smaller eccentricity than the best one
+            int write = 0;
+            for (int i = 0; i < active; i++) {
+                int v = candidates[i];
+                if (lower[v] < best && lower[v] != upper[v]) {
+                    candidates[write++] = v;
+                } else if (lower[v] == upper[v] && lower[v] < best) {
+                    best = lower[v];
+                    center = v;
+                }
+            }
+            active = write;
+        }
+
+        for (int i = 0; i < count; i++) {
+            maxDistances[vertices[i]] = lower[vertices[i]];
+        }
+        return center;
+    }
+}
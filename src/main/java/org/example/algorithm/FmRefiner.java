@@ -0,0 +1,271 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Fiduccia-Mattheyses refinement of a bisection (groups 1 and 2 in groupAssignment) of one component.
+ *
+ * Only boundary vertices (with a neighbor in the other group) are kept in the gain buckets: one doubly linked
+ * list per gain value and group, so insert, remove and "take the best move" are O(1) (the best-gain pointer only
+ * walks down between inserts). Each pass moves unlocked vertices greedily, even with negative gain, and then
+ * rolls back to the best prefix of moves. Every single move keeps both groups connected (the moved vertex is on
+ * the boundary and not an articulation point of its group, see ArticulationTest, computed once per pass), so
+ * every prefix - and the rolled back state - is a valid split.
+ * Intermediate states may exceed the margin by one move, but only states within the margin are accepted.
+ */
+public class FmRefiner {
+    private static final int MAX_PASSES = 8;
+    // A pass ends after this many moves without a new best cut
+    private static final int MAX_UNPRODUCTIVE_MOVES = 100;
+
+    private final int[] offsets;
+    private final int[] ends;
+    private final int[] targets;
+    private final int[] groupAssignment;
+    private final ArticulationTest articulationTest;
+
+    // gain[v] = external - internal edges, external[v] = edges to the other group
+    private final int[] gain;
+    private final int[] external;
+
+    // Gain buckets; vertices are linked through next/prev, inBucket marks list membership
+    private final int[] next;
+    private final int[] prev;
+    private final boolean[] inBucket;
+    private int[][] bucketHead;
+    private final int[] topGain = new int[2];
+    private int maxDegree;
+
+    private final int[] lockedEpoch;
+    private int epoch;
+    private int[] moves;
+
+    private int cutBefore;
+    private int cutAfter;
+
+    public FmRefiner(Graph graph) {
+        CsrGraph adjacency = graph.getAdjacency();
+        int numVertices = adjacency.getNumVertices();
+        this.offsets = adjacency.getOffsets();
+        this.ends = adjacency.getEnds();
+        this.targets = adjacency.getTargets();
+        this.groupAssignment = graph.getGroupAssignment();
+        this.articulationTest = new ArticulationTest(adjacency, groupAssignment);
+        this.gain = new int[numVertices];
+        this.external = new int[numVertices];
+        this.next = new int[numVertices];
+        this.prev = new int[numVertices];
+        this.inBucket = new boolean[numVertices];
+        this.lockedEpoch = new int[numVertices];
+        this.epoch = 0;
+    }
+
+    /**
+     * Refines the split of component members[0..count) in place. Both groups must be connected and their size
+     * difference must fit allowedMargin; both stay true. Returns the number of cut edges after refinement.
+     */
+    public int refine(int[] members, int count, int allowedMargin) {
+        maxDegree = 0;
+        for (int k = 0; k < count; k++) {
+            int v = members[k];
+            maxDegree = Math.max(maxDegree, ends[v] - offsets[v]);
+        }
+        bucketHead = new int[2][2 * maxDegree + 1];
+        if (moves == null || moves.length < count) {
+            moves = new int[count];
+        }
+
+        int[] size = new int[2];
+        for (int k = 0; k < count; k++) {
+            size[groupAssignment[members[k]] - 1]++;
+        }
+
+        cutBefore = -1;
+        int cut = 0;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            GraphPartitioner.checkCancelled();
+            cut = initializeGains(members, count);
+            if (cutBefore == -1) cutBefore = cut;
+            articulationTest.compute(members, count);
+
+            int improvement = runPass(size, allowedMargin);
+            cut -= improvement;
+            if (improvement <= 0) break;
+        }
+        cutAfter = cut;
+        return cutAfter;
+    }
+
+    public int getCutBefore() {
+        return cutBefore;
+    }
+
+    public int getCutAfter() {
+        return cutAfter;
+    }
+
+    // ====================== PASS ======================
+
+    private int runPass(int[] size, int allowedMargin) {
+        nextEpoch();
+        int moveCount = 0;
+        int total = 0;
+        int best = 0;
+        int bestCount = 0;
+        int bestDiff = Math.abs(size[0] - size[1]);
+
+        while (true) {
+            int v = selectMove(size, allowedMargin);
+            if (v == -1) break;
+
+            int from = groupAssignment[v] - 1;
+            removeFromBucket(v);
+            lockedEpoch[v] = epoch;
+
+            // The group left behind must stay connected, the other one gains a boundary vertex
+            if (size[from] == 1 || articulationTest.isCutVertex(v)) continue;
+
+            total += gain[v];
+            move(v);
+            size[from]--;
+            size[1 - from]++;
+            moves[moveCount++] = v;
+
+            int diff = Math.abs(size[0] - size[1]);
+            if (diff <= allowedMargin && (total > best || (total == best && diff < bestDiff))) {
+                best = total;
+                bestCount = moveCount;
+                bestDiff = diff;
+            } else if (moveCount - bestCount > MAX_UNPRODUCTIVE_MOVES) {
+                break;
+            }
+        }
+
+        // Roll back everything after the best prefix
+        for (int k = moveCount - 1; k >= bestCount; k--) {
+            int v = moves[k];
+            int from = groupAssignment[v] - 1;
+            groupAssignment[v] = 3 - groupAssignment[v];
+            size[from]--;
+            size[1 - from]++;
+        }
+        clearBuckets();
+        return best;
+    }
+
+    // Best-gain vertex of a group whose move keeps the size difference within one move of the margin
+    private int selectMove(int[] size, int allowedMargin) {
+        int bestSide = -1;
+        int bestGain = Integer.MIN_VALUE;
+        for (int side = 0; side < 2; side++) {
+            int newDiff = Math.abs((size[side] - 1) - (size[1 - side] + 1));
+            if (newDiff > allowedMargin + 2 && newDiff > Math.abs(size[0] - size[1])) continue;
+
+            while (topGain[side] >= 0 && bucketHead[side][topGain[side]] == -1) {
+                topGain[side]--;
+            }
+            if (topGain[side] < 0) continue;
+
+            int g = topGain[side] - maxDegree;
+            if (g > bestGain || (g == bestGain && size[side] > size[bestSide])) {
+                bestGain = g;
+                bestSide = side;
+            }
+        }
+        return bestSide == -1 ? -1 : bucketHead[bestSide][topGain[bestSide]];
+    }
+
+    private void move(int v) {
+        int newGroup = 3 - groupAssignment[v];
+        groupAssignment[v] = newGroup;
+        gain[v] = -gain[v];
+        external[v] = (ends[v] - offsets[v]) - external[v];
+
+        for (int i = offsets[v]; i < ends[v]; i++) {
+            int w = targets[i];
+            boolean unlocked = lockedEpoch[w] != epoch;
+            if (unlocked && inBucket[w]) removeFromBucket(w);
+
+            if (groupAssignment[w] == newGroup) {
+                external[w]--;
+                gain[w] -= 2;
+            } else {
+                external[w]++;
+                gain[w] += 2;
+            }
+
+            if (unlocked && external[w] > 0) insertIntoBucket(w);
+        }
+        articulationTest.moved(v);
+    }
+
+    // ====================== GAIN BUCKETS ======================
+
+    // Computes gains of all members, fills the buckets with boundary vertices and returns the cut size
+    private int initializeGains(int[] members, int count) {
+        for (int[] heads : bucketHead) {
+            Arrays.fill(heads, -1);
+        }
+        topGain[0] = -1;
+        topGain[1] = -1;
+
+        int cutEntries = 0;
+        for (int k = 0; k < count; k++) {
+            int v = members[k];
+            int group = groupAssignment[v];
+            int ext = 0;
+            for (int i = offsets[v]; i < ends[v]; i++) {
+                if (groupAssignment[targets[i]] != group) ext++;
+            }
+            external[v] = ext;
+            gain[v] = 2 * ext - (ends[v] - offsets[v]);
+            cutEntries += ext;
+            if (ext > 0) insertIntoBucket(v);
+        }
+        return cutEntries / 2;
+    }
+
+    private void insertIntoBucket(int v) {
+        int side = groupAssignment[v] - 1;
+        int index = gain[v] + maxDegree;
+        int head = bucketHead[side][index];
+        next[v] = head;
+        prev[v] = -1;
+        if (head != -1) prev[head] = v;
+        bucketHead[side][index] = v;
+        inBucket[v] = true;
+        if (index > topGain[side]) topGain[side] = index;
+    }
+
+    private void removeFromBucket(int v) {
+        int side = groupAssignment[v] - 1;
+        if (prev[v] != -1) {
+            next[prev[v]] = next[v];
+        } else {
+            bucketHead[side][gain[v] + maxDegree] = next[v];
+        }
+        if (next[v] != -1) prev[next[v]] = prev[v];
+        inBucket[v] = false;
+    }
+
+    private void clearBuckets() {
+        for (int side = 0; side < 2; side++) {
+            for (int index = 0; index < bucketHead[side].length; index++) {
+                for (int v = bucketHead[side][index]; v != -1; v = next[v]) {
+                    inBucket[v] = false;
+                }
+            }
+        }
+    }
+
+    private void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(lockedEpoch, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -1,288 +1,282 @@
 package org.example.algorithm;
+import org.example.model.CsrGraph;
 import org.example.model.Graph;
 import org.example.model.PartitionResult;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 
 public class GraphPartitioner {
-    private static final int INF = Integer.MAX_VALUE;
 
-    // ====================== HELPER FUNCTIONS ======================
+    public enum PartitionMode {
+        // Group 1 grown by DFS from the component center (original algorithm)
+        CENTER_GROWTH,
+        // Coarsen - bisect - refine, see MultilevelBisection
+        MULTILEVEL
+    }
 
-    public static void dfsMarkComponents(Graph graph, int startVertex, boolean[] visited, int[] component, int currentComponent) {
-        Stack<Integer> stack = new Stack<>();
-        List<Integer>[] neighbors = graph.getNeighbors();
+    private static PartitionMode partitionMode = PartitionMode.CENTER_GROWTH;
 
-        stack.push(startVertex);
-        visited[startVertex] = true;
-        component[startVertex] = currentComponent;
-
-        while (!stack.isEmpty()) {
-            int v = stack.pop();
+    public static void setPartitionMode(PartitionMode mode) {
+        partitionMode = mode;
+    }
 
-            for (int neighbor : neighbors[v]) {
-                if (!visited[neighbor]) {
-                    visited[neighbor] = true;
-                    component[neighbor] = currentComponent;
-                    stack.push(neighbor);
-                }
-            }
-        }
+    public static PartitionMode getPartitionMode() {
+        return partitionMode;
     }
 
-    // ====================== CONNECTED COMPONENTS ANALYSIS ======================
+    // Recursive bisection of independent parts on the pool instead of one cut after another (see RecursivePartitioner)
+    private static boolean recursiveDriver = false;
 
-    public static void findConnectedComponents(Graph graph) {
-        int numVertices = graph.getNumVertices();
-        boolean[] visited = new boolean[numVertices];
-        int[] component = graph.getComponent();
-        int numComponents = 0;
+    public static void setRecursiveDriver(boolean enabled) {
+        recursiveDriver = enabled;
+    }
 
-        for (int i = 0; i < numVertices; i++) {
-            if (!visited[i]) {
-                dfsMarkComponents(graph, i, visited, component, numComponents);
-                numComponents++;
-            }
-        }
+    public static boolean isRecursiveDriver() {
+        return recursiveDriver;
+    }
+
+    // FM refinement of every split before it is applied (see FmRefiner)
+    private static boolean refinementEnabled = true;
 
-        graph.setNumComponents(numComponents);
+    public static void setRefinementEnabled(boolean enabled) {
+        refinementEnabled = enabled;
     }
 
-    // ====================== DIJKSTRA ======================
+    // Progress reporting and cancellation of the current run (one run at a time)
+    private static volatile PartitionMonitor monitor = PartitionMonitor.NONE;
 
-    static class DistanceVertex implements Comparable<DistanceVertex> {
-        int vertex;
-        int distance;
+    public static void setMonitor(PartitionMonitor partitionMonitor) {
+        monitor = partitionMonitor != null ? partitionMonitor : PartitionMonitor.NONE;
+    }
 
-        DistanceVertex(int vertex, int distance) {
-            this.vertex = vertex;
-            this.distance = distance;
-        }
+    public static PartitionMonitor getMonitor() {
+        return monitor;
+    }
 
-        @Override
-        public int compareTo(DistanceVertex other) {
-            return Integer.compare(this.distance, other.distance);
+    // Throws CancellationException if the monitor asks to stop; called regularly from the partitioning loops
+    public static void checkCancelled() {
+        if (monitor.isCancelled()) {
+            throw new CancellationException("Podział przerwany");
         }
     }
 
-    public static void dijkstra(Graph graph, int start) {
-        int numVertices = graph.getNumVertices();
-        int[] dist = new int[numVertices];
-        boolean[] visited = new boolean[numVertices];
-        List<Integer>[] neighbors = graph.getNeighbors();
-        PriorityQueue<DistanceVertex> pq = new PriorityQueue<>();
+    static void reportPhase(PartitionMonitor.Phase phase) {
+        monitor.phaseStarted(phase);
+    }
 
-        Arrays.fill(dist, INF);
-        dist[start] = 0;
-        pq.offer(new DistanceVertex(start, 0));
+    // Components up to this size get exact eccentricities, larger ones use the approximate strategy
+    private static final int DEFAULT_EXACT_CENTER_LIMIT = 10000;
 
-        while (!pq.isEmpty()) {
-            DistanceVertex current = pq.poll();
-            int u = current.vertex;
+    private static int exactCenterLimit = DEFAULT_EXACT_CENTER_LIMIT;
+    private static EccentricityEngine.CenterStrategy approximateCenterStrategy = EccentricityEngine.CenterStrategy.BOUNDING;
 
-            if (visited[u]) continue;
-            visited[u] = true;
+    public static void setExactCenterLimit(int limit) {
+        exactCenterLimit = limit;
+    }
 
-            for (int v : neighbors[u]) {
-                if (!visited[v] && dist[u] + 1 < dist[v]) {
-                    dist[v] = dist[u] + 1;
-                    pq.offer(new DistanceVertex(v, dist[v]));
-                }
-            }
-        }
+    public static void setApproximateCenterStrategy(EccentricityEngine.CenterStrategy strategy) {
+        approximateCenterStrategy = strategy;
+    }
 
-        int maxDist = 0;
-        for (int i = 0; i < numVertices; i++) {
-            if (dist[i] != INF && dist[i] > maxDist) {
-                maxDist = dist[i];
-            }
+    // Exact eccentricities of components at least this large are computed on the ForkJoinPool
+    private static final int PARALLEL_CENTER_MIN_SIZE = 256;
+
+    private static int parallelism = Runtime.getRuntime().availableProcessors();
+    private static ForkJoinPool pool;
+
+    // Number of worker threads used for the center search (1 = single-threaded)
+    public static synchronized void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Liczba wątków musi być dodatnia: " + threads);
         }
-        graph.getMaxDistances()[start] = maxDist;
+        if (threads != parallelism && pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        parallelism = threads;
     }
 
-    // ====================== CONNECTIVITY FUNCTIONS ======================
+    public static synchronized int getParallelism() {
+        return parallelism;
+    }
 
-    public static boolean isComponentConnected(Graph graph, boolean[] inComponent) {
-        int numVertices = graph.getNumVertices();
-        int start = -1;
-        for (int i = 0; i < numVertices; i++) {
-            if (inComponent[i]) {
-                start = i;
-                break;
-            }
+    static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
         }
-        if (start == -1) return true;
+        return pool;
+    }
 
-        boolean[] visited = new boolean[numVertices];
-        Stack<Integer> stack = new Stack<>();
-        int visitedCount = 0;
-        List<Integer>[] neighbors = graph.getNeighbors();
+    // ====================== HELPER FUNCTIONS ======================
 
-        stack.push(start);
-        visited[start] = true;
+    public static void dfsMarkComponents(Graph graph, int startVertex, boolean[] visited, int[] component, int currentComponent) {
+        CsrGraph adjacency = graph.getAdjacency();
+        dfsMarkComponents(adjacency.getOffsets(), adjacency.getEnds(), adjacency.getTargets(), startVertex, visited,
+                component, currentComponent, new int[adjacency.getNumVertices()]);
+    }
 
-        while (!stack.isEmpty()) {
-            int current = stack.pop();
-            visitedCount++;
+    private static void dfsMarkComponents(int[] offsets, int[] ends, int[] targets, int startVertex, boolean[] visited,
+                                          int[] component, int currentComponent, int[] stack) {
+        int top = 0;
+        stack[top++] = startVertex;
+        visited[startVertex] = true;
+        component[startVertex] = currentComponent;
 
-            for (int neighbor : neighbors[current]) {
-                if (inComponent[neighbor] && !visited[neighbor]) {
+        while (top > 0) {
+            int v = stack[--top];
+
+            for (int i = offsets[v]; i < ends[v]; i++) {
+                int neighbor = targets[i];
+                if (!visited[neighbor]) {
                     visited[neighbor] = true;
-                    stack.push(neighbor);
+                    component[neighbor] = currentComponent;
+                    stack[top++] = neighbor;
                 }
             }
         }
-
-        int componentSize = 0;
-        for (int i = 0; i < numVertices; i++) {
-            if (inComponent[i]) componentSize++;
-        }
-
-        return visitedCount == componentSize;
     }
 
-    // ====================== GROUP BALANCING ======================
-
-    static class VertexInfo {
-        int vertex;
-        int maxDist;
-
-        VertexInfo(int vertex, int maxDist) {
-            this.vertex = vertex;
-            this.maxDist = maxDist;
-        }
-    }
+    // ====================== CONNECTED COMPONENTS ANALYSIS ======================
 
-    public static boolean balanceGroups(Graph graph, List<Integer> group1, List<Integer> group2, int margin) {
-        List<VertexInfo> vertices = new ArrayList<>();
-        int[] maxDistances = graph.getMaxDistances();
-        int[] groupAssignment = graph.getGroupAssignment();
+    public static void findConnectedComponents(Graph graph) {
+        CsrGraph adjacency = graph.getAdjacency();
+        reportPhase(PartitionMonitor.Phase.COMPONENTS);
         int numVertices = graph.getNumVertices();
+        boolean[] visited = new boolean[numVertices];
+        int[] stack = new int[numVertices];
+        int[] component = graph.getComponent();
+        int numComponents = 0;
 
-        // Prepare sorted list of vertices from group 1
-        for (int v : group1) {
-            vertices.add(new VertexInfo(v, maxDistances[v]));
-        }
-
-        // Sort by max distance (ascending)
-        vertices.sort(Comparator.comparingInt(v -> v.maxDist));
-
-        // Try to move vertices starting from smallest max_distance
-        for (VertexInfo vertexInfo : vertices) {
-            int v = vertexInfo.vertex;
-
-            // Check if vertex is still in group 1
-            if (!group1.contains(v)) continue;
-
-            // Temporarily move to group 2
-            groupAssignment[v] = 2;
-
-            // Check group 1 connectivity without this vertex
-            boolean group1Connected = true;
-            if (group1.size() > 1) {
-                boolean[] group1Included = new boolean[numVertices];
-                for (int vertex : group1) {
-                    if (vertex != v) {
-                        group1Included[vertex] = true;
-                    }
-                }
-                group1Connected = isComponentConnected(graph, group1Included);
+        for (int i = 0; i < numVertices; i++) {
+            if (!visited[i]) {
+                checkCancelled();
+                dfsMarkComponents(adjacency.getOffsets(), adjacency.getEnds(), adjacency.getTargets(), i, visited,
+                        component, numComponents, stack);
+                numComponents++;
             }
+        }
 
-            // Check group 2 connectivity with new vertex
-            boolean group2Connected = true;
-            if (!group2.isEmpty()) {
-                boolean[] group2Included = new boolean[numVertices];
-                for (int vertex : group2) {
-                    group2Included[vertex] = true;
-                }
-                group2Included[v] = true;
-                group2Connected = isComponentConnected(graph, group2Included);
-            }
+        graph.setComponents(numComponents);
+    }
 
-            // Restore original assignment before making decision
-            groupAssignment[v] = 1;
+    // ====================== DIJKSTRA ======================
 
-            if (group1Connected && group2Connected) {
-                // Perform actual transfer
-                groupAssignment[v] = 2;
-                group2.add(v);
-                group1.remove(Integer.valueOf(v));
+    // Edges have unit weight, so the shortest path search is a plain BFS
+    public static void dijkstra(Graph graph, int start) {
+        EccentricityEngine engine = new EccentricityEngine(graph.getAdjacency());
+        graph.getMaxDistances()[start] = engine.bfs(start);
+    }
 
-                // Check margin condition
-                int sizeDiff = Math.abs(group1.size() - group2.size());
-                if (sizeDiff <= margin) {
-                    return true; // Successfully balanced within margin
-                }
+    // Same, with the workspace's engine: searches from many sources allocate its O(V) arrays only once
+    public static void dijkstra(Graph graph, int start, PartitionWorkspace workspace) {
+        workspace.bind(graph);
+        graph.getMaxDistances()[start] = workspace.engine().bfs(start);
+    }
 
-                // If still not balanced, continue trying
-                // DON'T make recursive call here - continue with the loop instead
-            }
-        }
+    // ====================== GROUP BALANCING ======================
 
-        // If we've tried all vertices and still can't balance within margin
-        return false;
+    /**
+     * Moves vertices from group1[0..size1) to group2[0..size2) until the size difference fits the margin
+     * (see GroupBalancer). The moved vertices are appended to group2, which must have room for size1 more,
+     * and group1 is compacted. Returns the number of moved vertices.
+     */
+    public static int balanceGroups(Graph graph, int[] group1, int size1, int[] group2, int size2, int margin) {
+        return new GroupBalancer(graph).balance(group1, size1, group2, size2, margin);
     }
 
     // ====================== MAIN PARTITIONING LOGIC ======================
 
     public static boolean partitionGraph(Graph graph, int marginPercent) {
+        return partitionGraph(graph, marginPercent, new PartitionWorkspace());
+    }
+
+    /**
+     * Cuts the first component that can be split within the margin. The workspace carries scratch arrays
+     * and engines between the cuts of one run, so a cut costs O(size of the component), not O(V).
+     */
+    public static boolean partitionGraph(Graph graph, int marginPercent, PartitionWorkspace workspace) {
+        workspace.bind(graph);
         int[] component = graph.getComponent();
         int[] maxDistances = graph.getMaxDistances();
         int[] groupAssignment = graph.getGroupAssignment();
-        List<Integer>[] neighbors = graph.getNeighbors();
-        int numVertices = graph.getNumVertices();
+        CsrGraph adjacency = graph.getAdjacency();
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+        int[] mark = workspace.mark();
+        int[] label = workspace.label();
+        int[] stack = workspace.stack();
+        int[] group1 = workspace.group1();
+        int[] group2 = workspace.group2();
+        EccentricityEngine engine = workspace.engine();
+
+        // Try partitioning for each component, in order of their lowest vertex
+        int[] order = componentsByLowestVertex(graph);
+        for (int comp : order) {
+            // Vertices of this component (kept up to date by splitGraph)
+            int[] componentVertices = graph.getComponentVertices(comp);
+            int componentSize = graph.getComponentSize(comp);
 
-        // Try partitioning for each component
-        for (int comp = 0; comp < graph.getNumComponents(); comp++) {
-            // Count vertices in this component
-            int componentSize = 0;
-            for (int i = 0; i < numVertices; i++) {
-                if (component[i] == comp) {
-                    componentSize++;
+            if (componentSize < 2) continue;
+            checkCancelled();
+
+            // Calculate margin based on component size (not target size)
+            int allowedMargin = marginPercent * componentSize / 100;
+
+            // Multilevel bisection first; if it cannot meet the margin, fall back to center growth
+            if (partitionMode == PartitionMode.MULTILEVEL) {
+                reportPhase(PartitionMonitor.Phase.GROWTH);
+                if (MultilevelBisection.bisect(graph, comp, allowedMargin, workspace)) {
+                    refineAndSplit(graph, comp, allowedMargin, workspace);
+                    return true;
+                }
+                for (int i = 0; i < componentSize; i++) {
+                    groupAssignment[componentVertices[i]] = 0;
                 }
             }
 
-            if (componentSize < 2) continue;
-
             // Find central vertex in component
-            int center = -1;
-            int minMaxDist = Integer.MAX_VALUE;
-
-            for (int i = 0; i < numVertices; i++) {
-                if (component[i] == comp) {
-                    dijkstra(graph, i);
-                    if (maxDistances[i] < minMaxDist) {
-                        minMaxDist = maxDistances[i];
-                        center = i;
-                    }
-                }
+            reportPhase(PartitionMonitor.Phase.CENTER_SEARCH);
+            EccentricityEngine.CenterStrategy strategy = componentSize <= exactCenterLimit
+                    ? EccentricityEngine.CenterStrategy.EXACT
+                    : approximateCenterStrategy;
+            int center;
+            if (strategy == EccentricityEngine.CenterStrategy.EXACT && getParallelism() > 1
+                    && componentSize >= PARALLEL_CENTER_MIN_SIZE) {
+                center = ParallelEccentricity.findCenter(workspace.enginePool(), componentVertices, componentSize,
+                        maxDistances, getPool());
+            } else {
+                center = engine.findCenter(componentVertices, componentSize, maxDistances, strategy);
             }
 
             if (center == -1) continue;
 
-            List<Integer> group1 = new ArrayList<>();
-            List<Integer> group2 = new ArrayList<>();
+            int size1 = 0;
+            int size2 = 0;
 
-            // Calculate margin based on component size (not target size)
-            int allowedMargin = marginPercent * componentSize / 100;
             int targetSize = componentSize / 2;
 
-            // Assign vertices to groups using DFS
-            boolean[] visited = new boolean[numVertices];
-            Stack<Integer> stack = new Stack<>();
+            // Assign vertices to groups using DFS; mark[v] == visited means v is in group 1
+            reportPhase(PartitionMonitor.Phase.GROWTH);
+            int visited = workspace.nextEpoch();
+            int top = 0;
 
-            stack.push(center);
-            visited[center] = true;
-            group1.add(center);
+            stack[top++] = center;
+            mark[center] = visited;
+            group1[size1++] = center;
             groupAssignment[center] = 1;
 
-            while (!stack.isEmpty() && group1.size() < targetSize) {
-                int current = stack.pop();
+            int steps = 0;
+            while (top > 0 && size1 < targetSize) {
+                if ((++steps & 0xFFF) == 0) checkCancelled();
+                int current = stack[--top];
 
                 int maxDist = -1;
                 int nextVertex = -1;
-                for (int neighbor : neighbors[current]) {
-                    if (!visited[neighbor] && component[neighbor] == comp) {
+                for (int i = offsets[current]; i < ends[current]; i++) {
+                    int neighbor = targets[i];
+                    if (mark[neighbor] != visited && component[neighbor] == comp) {
                         if (maxDistances[neighbor] > maxDist) {
                             maxDist = maxDistances[neighbor];
                             nextVertex = neighbor;
@@ -291,102 +285,100 @@ public class GraphPartitioner {
                 }
 
                 if (nextVertex != -1) {
-                    stack.push(current);
-                    stack.push(nextVertex);
-                    visited[nextVertex] = true;
-                    group1.add(nextVertex);
+                    stack[top++] = current;
+                    stack[top++] = nextVertex;
+                    mark[nextVertex] = visited;
+                    group1[size1++] = nextVertex;
                     groupAssignment[nextVertex] = 1;
                 }
             }
 
             // Rest goes to group 2
-            for (int i = 0; i < numVertices; i++) {
-                if (component[i] == comp && !visited[i]) {
-                    group2.add(i);
-                    groupAssignment[i] = 2;
+            for (int i = 0; i < componentSize; i++) {
+                int v = componentVertices[i];
+                if (mark[v] != visited) {
+                    group2[size2++] = v;
+                    groupAssignment[v] = 2;
                 }
             }
 
-            // Check group 2 connectivity and fix if needed
-            boolean[] group2Included = new boolean[numVertices];
-            for (int vertex : group2) {
-                group2Included[vertex] = true;
-            }
-
-            if (!isComponentConnected(graph, group2Included)) {
-                // Find largest connected part in group 2
-                boolean[] largestComponent = new boolean[numVertices];
-                int largestSize = 0;
-                boolean[] processed = new boolean[numVertices];
-
-                for (int v : group2) {
-                    if (!processed[v]) {
-                        boolean[] currentComponent = new boolean[numVertices];
-                        int currentSize = 0;
-                        Stack<Integer> componentStack = new Stack<>();
-
-                        componentStack.push(v);
-                        currentComponent[v] = true;
-                        processed[v] = true;
-
-                        while (!componentStack.isEmpty()) {
-                            int cv = componentStack.pop();
-                            currentSize++;
-
-                            for (int neighbor : neighbors[cv]) {
-                                if (groupAssignment[neighbor] == 2 && !currentComponent[neighbor]) {
-                                    currentComponent[neighbor] = true;
-                                    processed[neighbor] = true;
-                                    componentStack.push(neighbor);
-                                }
-                            }
-                        }
-
-                        if (currentSize > largestSize) {
-                            largestSize = currentSize;
-                            System.arraycopy(currentComponent, 0, largestComponent, 0, numVertices);
+            // Check group 2 connectivity and fix if needed: label its connected parts (label[v] = part number)
+            // and keep the largest one, the first found on a tie
+            int processed = workspace.nextEpoch();
+            int parts = 0;
+            int largestPart = -1;
+            int largestSize = 0;
+            for (int k = 0; k < size2; k++) {
+                int v = group2[k];
+                if (mark[v] == processed) continue;
+                checkCancelled();
+                int currentSize = 0;
+                top = 0;
+                stack[top++] = v;
+                mark[v] = processed;
+                label[v] = parts;
+
+                while (top > 0) {
+                    int cv = stack[--top];
+                    currentSize++;
+
+                    for (int i = offsets[cv]; i < ends[cv]; i++) {
+                        int neighbor = targets[i];
+                        if (groupAssignment[neighbor] == 2 && mark[neighbor] != processed) {
+                            mark[neighbor] = processed;
+                            label[neighbor] = parts;
+                            stack[top++] = neighbor;
                         }
                     }
                 }
 
-                // Move vertices outside largest component to group 1
-                List<Integer> newGroup2 = new ArrayList<>();
-                for (int v : group2) {
-                    if (largestComponent[v]) {
-                        newGroup2.add(v);
+                if (currentSize > largestSize) {
+                    largestSize = currentSize;
+                    largestPart = parts;
+                }
+                parts++;
+            }
+
+            if (parts > 1) {
+                // Move vertices outside largest part to group 1
+                int kept = 0;
+                for (int k = 0; k < size2; k++) {
+                    int v = group2[k];
+                    if (label[v] == largestPart) {
+                        group2[kept++] = v;
                     } else {
-                        group1.add(v);
+                        group1[size1++] = v;
                         groupAssignment[v] = 1;
                     }
                 }
-                group2 = newGroup2;
+                size2 = kept;
             }
 
             // Check margin condition
-            int sizeDiff = Math.abs(group1.size() - group2.size());
+            int sizeDiff = Math.abs(size1 - size2);
 
             // If difference is within margin, perform split
             if (sizeDiff <= allowedMargin) {
-                splitGraph(graph);
+                refineAndSplit(graph, comp, allowedMargin, workspace);
                 return true;
             }
             // If difference exceeds margin, try to balance
             else {
-                boolean balanced = balanceGroups(graph, group1, group2, allowedMargin);
-                if (balanced) {
-                    // Check final balance after balancing
-                    int finalDiff = Math.abs(group1.size() - group2.size());
-                    if (finalDiff <= allowedMargin) {
-                        splitGraph(graph);
-                        return true;
-                    }
+                reportPhase(PartitionMonitor.Phase.BALANCING);
+                int moved = workspace.balancer().balance(group1, size1, group2, size2, allowedMargin);
+                size1 -= moved;
+                size2 += moved;
+
+                // Check final balance after balancing
+                int finalDiff = Math.abs(size1 - size2);
+                if (finalDiff <= allowedMargin) {
+                    refineAndSplit(graph, comp, allowedMargin, workspace);
+                    return true;
                 }
                 // If balancing failed or still exceeds margin, don't split this component
                 // Reset group assignments for this component
-                for (int i = 0; i < numVertices; i++) {
-                    if (component[i] == comp) {
-                        groupAssignment[i] = 0;
-                    }
+                for (int i = 0; i < componentSize; i++) {
+                    groupAssignment[componentVertices[i]] = 0;
                 }
             }
         }
@@ -394,41 +386,76 @@ public class GraphPartitioner {
         return false; // No component could be partitioned within margin
     }
 
-    public static void splitGraph(Graph graph) {
-        int newComponentId = graph.getNumComponents(); // new component
-        int[] component = graph.getComponent();
-        int[] groupAssignment = graph.getGroupAssignment();
-        List<Integer>[] neighbors = graph.getNeighbors();
-        int[] neighborCount = graph.getNeighborCount();
-        int numVertices = graph.getNumVertices();
+    /**
+     * Component ids ordered by their lowest vertex. Ids are kept across cuts (the new part gets the next id),
+     * while a full relabelling (findConnectedComponents) numbers components by their lowest vertex; trying
+     * them in this order makes the choice of the component to cut independent of the numbering.
+     */
+    private static int[] componentsByLowestVertex(Graph graph) {
+        int numComponents = graph.getNumComponents();
+        long[] keys = new long[numComponents];
+        for (int comp = 0; comp < numComponents; comp++) {
+            int lowest = graph.getComponentSize(comp) > 0 ? graph.getComponentVertices(comp)[0] : Integer.MAX_VALUE;
+            keys[comp] = ((long) lowest << 32) | comp;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[numComponents];
+        for (int i = 0; i < numComponents; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
 
-        // Update component assignments
-        for (int i = 0; i < numVertices; i++) {
-            if (groupAssignment[i] == 2) {
-                component[i] = newComponentId;
-            }
+    // Optional FM refinement of the split of component comp, then the split itself
+    private static void refineAndSplit(Graph graph, int comp, int allowedMargin, PartitionWorkspace workspace) {
+        int cutBefore = -1;
+        if (refinementEnabled) {
+            reportPhase(PartitionMonitor.Phase.REFINEMENT);
+            FmRefiner refiner = workspace.refiner();
+            refiner.refine(graph.getComponentVertices(comp), graph.getComponentSize(comp), allowedMargin);
+            cutBefore = refiner.getCutBefore();
+            PartitionLog.logf(PartitionLog.Level.DETAIL, "FM refinement: cut edges %d -> %d", cutBefore, refiner.getCutAfter());
         }
-        graph.setNumComponents(graph.getNumComponents() + 1);
 
-        // Remove edges between groups
-        for (int i = 0; i < numVertices; i++) {
-            List<Integer> newNeighbors = new ArrayList<>();
+        reportPhase(PartitionMonitor.Phase.SPLIT);
+        splitGraph(graph, comp);
+        if (cutBefore != -1) {
+            graph.setLastCut(cutBefore, graph.getLastCutAfter());
+        }
+    }
 
-            for (int neighbor : neighbors[i]) {
-                // Keep only edges within the same group
-                if (groupAssignment[i] == groupAssignment[neighbor]) {
-                    newNeighbors.add(neighbor);
-                }
-            }
+    // Splits component comp along groupAssignment: group 2 becomes a new component, edges between groups are removed
+    public static void splitGraph(Graph graph, int comp) {
+        int[] groupAssignment = graph.getGroupAssignment();
 
-            // Update neighbor list
-            neighbors[i].clear();
-            neighbors[i].addAll(newNeighbors);
-            neighborCount[i] = newNeighbors.size();
+        // Update component assignments and vertex lists (only this component is touched)
+        int newComponentId = graph.splitComponent(comp, 2);
+
+        // Remove edges between groups (keep only edges within the same group)
+        int[] group1 = graph.getComponentVertices(comp);
+        int[] group2 = graph.getComponentVertices(newComponentId);
+        int size1 = graph.getComponentSize(comp);
+        int size2 = graph.getComponentSize(newComponentId);
+        // Both lists are sorted; merge them so the rows are compacted in memory order
+        int[] rows = new int[size1 + size2];
+        int i1 = 0;
+        int i2 = 0;
+        for (int k = 0; k < rows.length; k++) {
+            if (i2 == size2 || (i1 < size1 && group1[i1] < group2[i2])) {
+                rows[k] = group1[i1++];
+            } else {
+                rows[k] = group2[i2++];
+            }
         }
 
+        int removed = graph.removeEdges(rows, rows.length, (u, v) -> groupAssignment[u] == groupAssignment[v]);
+        int cutEdges = removed / 2;
+        graph.setLastCut(cutEdges, cutEdges);
+
         // Reset group assignments
-        Arrays.fill(groupAssignment, 0, numVertices, 0);
+        for (int v : rows) {
+            groupAssignment[v] = 0;
+        }
     }
 
     public static List<PartitionResult.PartitionInfo> performPartitioning(Graph graph, int numCuts, int marginPercent) {
@@ -0,0 +1,120 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Moves vertices from group 1 to group 2 (lowest eccentricity first) until the size difference fits the margin,
+ * keeping both groups connected.
+ *
+ * Both groups are connected when balancing starts, so the full connectivity checks reduce to local tests:
+ * group 2 + v stays connected iff v has a neighbor in group 2, and group 1 - v stays connected iff v is not
+ * an articulation point of group 1. Those are computed once per call (see ArticulationTest) and only
+ * recomputed when the moves made since then leave a candidate undecided. groupAssignment must label the
+ * groups 1 and 2.
+ */
+public class GroupBalancer {
+    private final int[] offsets;
+    private final int[] ends;
+    private final int[] targets;
+    private final int[] maxDistances;
+    private final int[] groupAssignment;
+
+    private final BitSet inGroup1;
+    private final BitSet inGroup2;
+
+    private final ArticulationTest articulationTest;
+
+    // Vertices appended to group 2 by the current balance() call
+    private int moved;
+
+    public GroupBalancer(Graph graph) {
+        CsrGraph adjacency = graph.getAdjacency();
+        int numVertices = adjacency.getNumVertices();
+        this.offsets = adjacency.getOffsets();
+        this.ends = adjacency.getEnds();
+        this.targets = adjacency.getTargets();
+        this.maxDistances = graph.getMaxDistances();
+        this.groupAssignment = graph.getGroupAssignment();
+        this.inGroup1 = new BitSet(numVertices);
+        this.inGroup2 = new BitSet(numVertices);
+        this.articulationTest = new ArticulationTest(adjacency, groupAssignment);
+    }
+
+    /**
+     * Balances group1[0..size1) against group2[0..size2) until the size difference fits the margin or no
+     * vertex can be moved. Moved vertices are appended to group2 (which must have room for size1 more) and
+     * removed from group1 keeping the order of the rest. Returns the number of moved vertices.
+     */
+    public int balance(int[] group1, int size1, int[] group2, int size2, int margin) {
+        // The bit sets are cleared member by member afterwards, so a call costs O(group sizes), not O(V)
+        for (int i = 0; i < size1; i++) inGroup1.set(group1[i]);
+        for (int i = 0; i < size2; i++) inGroup2.set(group2[i]);
+        moved = 0;
+        try {
+            balanceMarked(group1, size1, group2, size2, margin);
+            return moved;
+        } finally {
+            // Every vertex that was set is still listed in group1[0..size1) or group2[0..size2 + moved)
+            for (int i = 0; i < size1; i++) inGroup1.clear(group1[i]);
+            for (int i = 0; i < size2 + moved; i++) inGroup2.clear(group2[i]);
+        }
+    }
+
+    private void balanceMarked(int[] group1, int size1, int[] group2, int size2, int margin) {
+
+        // Candidates sorted by max distance (ascending), ties keep the group 1 order
+        long[] order = new long[size1];
+        for (int i = 0; i < size1; i++) {
+            order[i] = ((long) maxDistances[group1[i]] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int currentSize1 = size1;
+        int currentSize2 = size2;
+        articulationTest.compute(group1, size1);
+
+        for (long key : order) {
+            GraphPartitioner.checkCancelled();
+            int v = group1[(int) key];
+
+            boolean group2Connected = currentSize2 == 0 || hasNeighborIn(v, inGroup2);
+            if (!group2Connected) continue;
+
+            boolean group1Connected = currentSize1 <= 1 || !articulationTest.isCutVertex(v);
+            if (!group1Connected) continue;
+
+            // Perform actual transfer
+            inGroup1.clear(v);
+            inGroup2.set(v);
+            groupAssignment[v] = 2;
+            group2[currentSize2++] = v;
+            moved++;
+            currentSize1--;
+            articulationTest.moved(v);
+
+            // Check margin condition
+            if (Math.abs(currentSize1 - currentSize2) <= margin) {
+                break;
+            }
+        }
+
+        // Compact group 1, keeping the original order of the remaining vertices
+        int write = 0;
+        for (int i = 0; i < size1; i++) {
+            if (inGroup1.get(group1[i])) {
+                group1[write++] = group1[i];
+            }
+        }
+    }
+
+    private boolean hasNeighborIn(int v, BitSet group) {
+        for (int i = offsets[v]; i < ends[v]; i++) {
+            if (group.get(targets[i])) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,431 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Multilevel bisection of one connected component (coarsen - partition - refine):
+ * 1. coarsening by heavy-edge matching until the graph is small,
+ * 2. greedy graph growing bisection of the coarsest graph (best of a few seeds),
+ * 3. projection back through the levels with greedy boundary refinement on each one.
+ * The result is then repaired the same way GraphPartitioner does it: both halves are made connected
+ * and GroupBalancer moves vertices until the size difference fits the margin.
+ */
+public class MultilevelBisection {
+    private static final int COARSEST_SIZE = 100;
+    // Stop coarsening when a level shrinks by less than this fraction
+    private static final double MIN_REDUCTION = 0.1;
+    private static final int INITIAL_TRIALS = 4;
+    private static final int REFINEMENT_PASSES = 6;
+    private static final long SEED = 42;
+
+    // One level of the hierarchy: weighted CSR graph and mapping of its vertices to the next coarser level
+    private static class Level {
+        final int n;
+        final int[] xadj;
+        final int[] adjncy;
+        final int[] adjwgt;
+        final int[] vwgt;
+        int[] coarseMap;
+
+        Level(int n, int[] xadj, int[] adjncy, int[] adjwgt, int[] vwgt) {
+            this.n = n;
+            this.xadj = xadj;
+            this.adjncy = adjncy;
+            this.adjwgt = adjwgt;
+            this.vwgt = vwgt;
+        }
+
+        int totalWeight() {
+            int total = 0;
+            for (int i = 0; i < n; i++) total += vwgt[i];
+            return total;
+        }
+
+        int maxVertexWeight() {
+            int max = 0;
+            for (int i = 0; i < n; i++) max = Math.max(max, vwgt[i]);
+            return max;
+        }
+    }
+
+    /**
+     * Bisects component comp and writes groups 1 and 2 into graph.getGroupAssignment().
+     * Returns true if both groups are connected and their size difference is at most allowedMargin.
+     */
+    public static boolean bisect(Graph graph, int comp, int allowedMargin, PartitionWorkspace workspace) {
+        int[] members = graph.getComponentVertices(comp);
+        int size = graph.getComponentSize(comp);
+        if (size < 2) return false;
+
+        Random random = new Random(SEED);
+        Level finest = buildLocalLevel(graph.getAdjacency(), members, size);
+
+        // Coarsening
+        Level[] levels = new Level[8];
+        int depth = 0;
+        levels[depth++] = finest;
+        while (levels[depth - 1].n > COARSEST_SIZE) {
+            GraphPartitioner.checkCancelled();
+            Level fine = levels[depth - 1];
+            Level coarse = coarsen(fine, random);
+            if (coarse.n > fine.n * (1 - MIN_REDUCTION)) {
+                fine.coarseMap = null;
+                break;
+            }
+            if (depth == levels.length) {
+                levels = Arrays.copyOf(levels, depth * 2);
+            }
+            levels[depth++] = coarse;
+        }
+
+        // Initial bisection of the coarsest graph
+        Level coarsest = levels[depth - 1];
+        int[] side = initialBisection(coarsest, random, Math.max(allowedMargin, coarsest.maxVertexWeight()));
+
+        // Uncoarsening with refinement
+        for (int l = depth - 2; l >= 0; l--) {
+            GraphPartitioner.checkCancelled();
+            Level fine = levels[l];
+            int[] fineSide = new int[fine.n];
+            for (int v = 0; v < fine.n; v++) {
+                fineSide[v] = side[fine.coarseMap[v]];
+            }
+            side = fineSide;
+            int tolerance = l == 0 ? allowedMargin : Math.max(allowedMargin, fine.maxVertexWeight());
+            refine(fine, side, tolerance);
+        }
+
+        if (!makeSidesConnected(finest, side)) {
+            return false;
+        }
+
+        // The larger side becomes group 1, because the balancer moves vertices from group 1 to group 2
+        int weight0 = 0;
+        for (int v = 0; v < size; v++) {
+            if (side[v] == 0) weight0++;
+        }
+        int largerSide = weight0 >= size - weight0 ? 0 : 1;
+
+        int[] groupAssignment = graph.getGroupAssignment();
+        int[] group1 = workspace.group1();
+        int[] group2 = workspace.group2();
+        int size1 = 0;
+        int size2 = 0;
+        for (int v = 0; v < size; v++) {
+            if (side[v] == largerSide) {
+                group1[size1++] = members[v];
+                groupAssignment[members[v]] = 1;
+            } else {
+                group2[size2++] = members[v];
+                groupAssignment[members[v]] = 2;
+            }
+        }
+
+        if (size1 - size2 <= allowedMargin) {
+            return true;
+        }
+
+        // Balancer prefers central vertices, so give it eccentricity estimates for this component
+        workspace.engine().findCenter(members, size, graph.getMaxDistances(), EccentricityEngine.CenterStrategy.DOUBLE_SWEEP);
+        int moved = workspace.balancer().balance(group1, size1, group2, size2, allowedMargin);
+        return Math.abs((size1 - moved) - (size2 + moved)) <= allowedMargin;
+    }
+
+    // ====================== LEVEL CONSTRUCTION ======================
+
+    private static Level buildLocalLevel(CsrGraph adjacency, int[] members, int size) {
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+
+        // Global -> local ids; members are sorted, so a binary search avoids a graph-sized lookup table
+        int[] xadj = new int[size + 1];
+        for (int v = 0; v < size; v++) {
+            xadj[v + 1] = xadj[v] + adjacency.degree(members[v]);
+        }
+        int[] adjncy = new int[xadj[size]];
+        int e = 0;
+        for (int v = 0; v < size; v++) {
+            int u = members[v];
+            for (int i = offsets[u]; i < ends[u]; i++) {
+                adjncy[e++] = Arrays.binarySearch(members, 0, size, targets[i]);
+            }
+        }
+
+        int[] adjwgt = new int[adjncy.length];
+        Arrays.fill(adjwgt, 1);
+        int[] vwgt = new int[size];
+        Arrays.fill(vwgt, 1);
+        return new Level(size, xadj, adjncy, adjwgt, vwgt);
+    }
+
+    // Heavy-edge matching: every vertex (in random order) is matched with its unmatched neighbor
+    // connected by the heaviest edge, matched pairs become one coarse vertex
+    private static Level coarsen(Level fine, Random random) {
+        int n = fine.n;
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        int[] cmap = new int[n];
+        int[] firstFine = new int[n];
+        int cn = 0;
+
+        int[] perm = randomPermutation(n, random);
+        for (int k = 0; k < n; k++) {
+            int u = perm[k];
+            if (match[u] != -1) continue;
+
+            int best = -1;
+            int bestWeight = -1;
+            for (int i = fine.xadj[u]; i < fine.xadj[u + 1]; i++) {
+                int v = fine.adjncy[i];
+                if (match[v] == -1 && v != u && fine.adjwgt[i] > bestWeight) {
+                    best = v;
+                    bestWeight = fine.adjwgt[i];
+                }
+            }
+
+            if (best == -1) {
+                match[u] = u;
+                cmap[u] = cn;
+            } else {
+                match[u] = best;
+                match[best] = u;
+                cmap[u] = cn;
+                cmap[best] = cn;
+            }
+            firstFine[cn++] = u;
+        }
+
+        int[] cvwgt = new int[cn];
+        for (int u = 0; u < n; u++) {
+            cvwgt[cmap[u]] += fine.vwgt[u];
+        }
+
+        // Contract edges; parallel edges are merged by summing their weights
+        int[] cxadj = new int[cn + 1];
+        int[] cadjncy = new int[fine.adjncy.length];
+        int[] cadjwgt = new int[fine.adjncy.length];
+        int[] position = new int[cn];
+        Arrays.fill(position, -1);
+        int e = 0;
+
+        for (int c = 0; c < cn; c++) {
+            cxadj[c] = e;
+            int rowStart = e;
+            int u = firstFine[c];
+            for (int part = 0; part < 2; part++) {
+                if (part == 1) {
+                    if (match[u] == u) break;
+                    u = match[u];
+                }
+                for (int i = fine.xadj[u]; i < fine.xadj[u + 1]; i++) {
+                    int cv = cmap[fine.adjncy[i]];
+                    if (cv == c) continue;
+                    if (position[cv] >= rowStart) {
+                        cadjwgt[position[cv]] += fine.adjwgt[i];
+                    } else {
+                        position[cv] = e;
+                        cadjncy[e] = cv;
+                        cadjwgt[e] = fine.adjwgt[i];
+                        e++;
+                    }
+                }
+            }
+        }
+        cxadj[cn] = e;
+
+        fine.coarseMap = cmap;
+        return new Level(cn, cxadj, Arrays.copyOf(cadjncy, e), Arrays.copyOf(cadjwgt, e), cvwgt);
+    }
+
+    private static int[] randomPermutation(int n, Random random) {
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        return perm;
+    }
+
+    // ====================== INITIAL BISECTION ======================
+
+    // Greedy graph growing: side 0 grows by BFS from a seed until it holds half of the weight
+    private static int[] initialBisection(Level g, Random random, int tolerance) {
+        int[] best = null;
+        long bestCut = Long.MAX_VALUE;
+        int total = g.totalWeight();
+        int[] queue = new int[g.n];
+
+        for (int trial = 0; trial < INITIAL_TRIALS; trial++) {
+            int seed = trial == 0 ? farthestFrom(g, 0, queue) : random.nextInt(g.n);
+
+            int[] side = new int[g.n];
+            Arrays.fill(side, 1);
+            int weight0 = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = seed;
+            side[seed] = 0;
+            weight0 += g.vwgt[seed];
+
+            while (head < tail && weight0 < total / 2) {
+                int u = queue[head++];
+                for (int i = g.xadj[u]; i < g.xadj[u + 1] && weight0 < total / 2; i++) {
+                    int v = g.adjncy[i];
+                    if (side[v] == 1) {
+                        side[v] = 0;
+                        weight0 += g.vwgt[v];
+                        queue[tail++] = v;
+                    }
+                }
+            }
+
+            refine(g, side, tolerance);
+            long cut = cutWeight(g, side);
+            if (cut < bestCut) {
+                bestCut = cut;
+                best = side;
+            }
+        }
+        return best;
+    }
+
+    // Last vertex reached by BFS from start (a pseudo-peripheral vertex)
+    private static int farthestFrom(Level g, int start, int[] queue) {
+        boolean[] seen = new boolean[g.n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        seen[start] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = g.xadj[u]; i < g.xadj[u + 1]; i++) {
+                int v = g.adjncy[i];
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return queue[tail - 1];
+    }
+
+    private static long cutWeight(Level g, int[] side) {
+        long cut = 0;
+        for (int u = 0; u < g.n; u++) {
+            for (int i = g.xadj[u]; i < g.xadj[u + 1]; i++) {
+                if (side[g.adjncy[i]] != side[u]) cut += g.adjwgt[i];
+            }
+        }
+        return cut / 2;
+    }
+
+    // ====================== REFINEMENT ======================
+
+    /**
+     * Greedy boundary refinement: a boundary vertex moves to the other side if that lowers the cut
+     * without breaking the balance tolerance, or if the sides are out of balance and the move reduces it.
+     */
+    private static void refine(Level g, int[] side, int tolerance) {
+        int[] weight = new int[2];
+        for (int v = 0; v < g.n; v++) {
+            weight[side[v]] += g.vwgt[v];
+        }
+
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            int moved = 0;
+            for (int v = 0; v < g.n; v++) {
+                int from = side[v];
+                int external = 0;
+                int internal = 0;
+                for (int i = g.xadj[v]; i < g.xadj[v + 1]; i++) {
+                    if (side[g.adjncy[i]] == from) internal += g.adjwgt[i];
+                    else external += g.adjwgt[i];
+                }
+                if (external == 0) continue;
+
+                int to = 1 - from;
+                int gain = external - internal;
+                int currentDiff = Math.abs(weight[from] - weight[to]);
+                int newDiff = Math.abs((weight[from] - g.vwgt[v]) - (weight[to] + g.vwgt[v]));
+                if (weight[from] == g.vwgt[v]) continue; // never empty a side
+
+                boolean improvesCut = gain > 0 && newDiff <= Math.max(tolerance, currentDiff);
+                boolean improvesBalance = newDiff < currentDiff && (gain == 0 || currentDiff > tolerance);
+                if (improvesCut || improvesBalance) {
+                    side[v] = to;
+                    weight[from] -= g.vwgt[v];
+                    weight[to] += g.vwgt[v];
+                    moved++;
+                }
+            }
+            if (moved == 0) break;
+        }
+    }
+
+    // ====================== CONNECTIVITY REPAIR ======================
+
+    /**
+     * Keeps the largest connected piece of each side and flips the other pieces to the opposite side
+     * (one side per round, so flipped pieces never touch each other) until both sides are connected.
+     * Returns false if one of the sides is empty.
+     */
+    private static boolean makeSidesConnected(Level g, int[] side) {
+        int[] piece = new int[g.n];
+        int[] stack = new int[g.n];
+        int[] pieceSize = new int[g.n];
+        int[] pieceSide = new int[g.n];
+
+        for (int round = 0; ; round++) {
+            Arrays.fill(piece, -1);
+            int pieces = 0;
+            for (int s = 0; s < g.n; s++) {
+                if (piece[s] != -1) continue;
+                int top = 0;
+                stack[top++] = s;
+                piece[s] = pieces;
+                int count = 0;
+                while (top > 0) {
+                    int u = stack[--top];
+                    count++;
+                    for (int i = g.xadj[u]; i < g.xadj[u + 1]; i++) {
+                        int v = g.adjncy[i];
+                        if (piece[v] == -1 && side[v] == side[u]) {
+                            piece[v] = pieces;
+                            stack[top++] = v;
+                        }
+                    }
+                }
+                pieceSize[pieces] = count;
+                pieceSide[pieces] = side[s];
+                pieces++;
+            }
+
+            int[] core = {-1, -1};
+            int[] orphans = new int[2];
+            for (int p = 0; p < pieces; p++) {
+                int s = pieceSide[p];
+                orphans[s]++;
+                if (core[s] == -1 || pieceSize[p] > pieceSize[core[s]]) core[s] = p;
+            }
+            if (core[0] == -1 || core[1] == -1) return false;
+            orphans[0]--;
+            orphans[1]--;
+            if (orphans[0] == 0 && orphans[1] == 0) return true;
+
+            int flipSide = orphans[round % 2] > 0 ? round % 2 : 1 - round % 2;
+            for (int v = 0; v < g.n; v++) {
+                if (side[v] == flipSide && piece[v] != core[flipSide]) {
+                    side[v] = 1 - flipSide;
+                }
+            }
+        }
+    }
+}
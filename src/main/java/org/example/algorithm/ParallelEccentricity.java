@@ -0,0 +1,105 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Exact eccentricities computed with BFS sources sharded across a ForkJoinPool.
+ * The sources are split into a few ranges per worker; every range borrows one EccentricityEngine
+ * (queue + distance buffers) from an EnginePool for its duration, and every source writes only its own
+ * slot of maxDistances, so no synchronization is needed.
+ */
+public class ParallelEccentricity {
+    // Below this many sources a task is not split any further
+    private static final int SOURCES_PER_TASK = 32;
+    // Ranges per pool thread: enough to balance uneven BFS costs, few enough to keep engine allocations low
+    private static final int TASKS_PER_THREAD = 4;
+
+    /**
+     * Idle engines of one adjacency, reused by later calls. A range holds an engine only while it runs,
+     * so the pool never grows beyond the number of ranges running at once (about the pool parallelism).
+     */
+    static final class EnginePool {
+        private final Supplier<EccentricityEngine> factory;
+        private final ConcurrentLinkedQueue<EccentricityEngine> idle = new ConcurrentLinkedQueue<>();
+
+        EnginePool(Supplier<EccentricityEngine> factory) {
+            this.factory = factory;
+        }
+
+        EccentricityEngine acquire() {
+            EccentricityEngine engine = idle.poll();
+            return engine != null ? engine : factory.get();
+        }
+
+        void release(EccentricityEngine engine) {
+            idle.add(engine);
+        }
+    }
+
+    public static int findCenter(CsrGraph adjacency, int[] vertices, int count, int[] maxDistances, ForkJoinPool pool) {
+        return findCenter(new EnginePool(() -> new EccentricityEngine(adjacency)), vertices, count, maxDistances, pool);
+    }
+
+    static int findCenter(EnginePool engines, int[] vertices, int count, int[] maxDistances, ForkJoinPool pool) {
+        if (count == 0) return -1;
+
+        int maxTasks = TASKS_PER_THREAD * pool.getParallelism();
+        int sourcesPerTask = Math.max(SOURCES_PER_TASK, (count + maxTasks - 1) / maxTasks);
+        pool.invoke(new SourceRange(engines, vertices, 0, count, sourcesPerTask, maxDistances));
+
+        // Pick the center sequentially, so ties resolve exactly like in the single-threaded search
+        int center = -1;
+        int minMaxDist = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int v = vertices[i];
+            if (maxDistances[v] < minMaxDist) {
+                minMaxDist = maxDistances[v];
+                center = v;
+            }
+        }
+        return center;
+    }
+
+    private static class SourceRange extends RecursiveAction {
+        private final EnginePool engines;
+        private final int[] vertices;
+        private final int from;
+        private final int to;
+        private final int sourcesPerTask;
+        private final int[] maxDistances;
+
+        SourceRange(EnginePool engines, int[] vertices, int from, int to, int sourcesPerTask, int[] maxDistances) {
+            this.engines = engines;
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.sourcesPerTask = sourcesPerTask;
+            this.maxDistances = maxDistances;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sourcesPerTask) {
+                EccentricityEngine engine = engines.acquire();
+                try {
+                    for (int i = from; i < to; i++) {
+                        GraphPartitioner.checkCancelled();
+                        maxDistances[vertices[i]] = engine.bfs(vertices[i]);
+                    }
+                } finally {
+                    engines.release(engine);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new SourceRange(engines, vertices, from, mid, sourcesPerTask, maxDistances),
+                    new SourceRange(engines, vertices, mid, to, sourcesPerTask, maxDistances));
+        }
+    }
+}
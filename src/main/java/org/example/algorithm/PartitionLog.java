@@ -0,0 +1,87 @@
+package org.example.algorithm;
+
+import org.example.model.PartitionResult;
+
+/**
+ * Leveled output of partitioning runs, written to a pluggable Sink (stdout, errors to stderr by default).
+ * Messages above the current level are not formatted at all, so the full dumps cost nothing unless enabled.
+ */
+public final class PartitionLog {
+
+    public enum Level {
+        OFF,
+        // Failed or cancelled cuts
+        ERROR,
+        // Start line, one record per cut (sizes, cut edges, time) and the final count
+        SUMMARY,
+        // Per-cut analysis: component sizes, balance check, FM refinement, cut history
+        DETAIL,
+        // Adjacency list and vertex list of every component before and after each cut
+        DUMP
+    }
+
+    public interface Sink {
+        void log(Level level, String message);
+
+        // Structured record of a completed cut, by default written as a one-line summary
+        default void cutCompleted(PartitionResult.PartitionInfo info) {
+            log(Level.SUMMARY, formatCut(info));
+        }
+    }
+
+    public static final Sink CONSOLE = (level, message) -> {
+        if (level == Level.ERROR) {
+            System.err.println(message);
+        } else {
+            System.out.println(message);
+        }
+    };
+
+    private static volatile Level level = Level.SUMMARY;
+    private static volatile Sink sink = CONSOLE;
+
+    private PartitionLog() {
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setSink(Sink newSink) {
+        sink = newSink != null ? newSink : CONSOLE;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.compareTo(level) <= 0;
+    }
+
+    public static void log(Level messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            sink.log(messageLevel, message);
+        }
+    }
+
+    public static void logf(Level messageLevel, String format, Object... args) {
+        if (isEnabled(messageLevel)) {
+            sink.log(messageLevel, String.format(format, args));
+        }
+    }
+
+    public static void cutCompleted(PartitionResult.PartitionInfo info) {
+        if (isEnabled(Level.SUMMARY)) {
+            sink.cutCompleted(info);
+        }
+    }
+
+    public static String formatCut(PartitionResult.PartitionInfo info) {
+        return String.format("Cut %d: component %d -> %d + %d vertices (component %d), cut edges %d (before refinement %d), "
+                        + "%d components, %s, %.1f ms",
+                info.getCutNumber(), info.getSplitComponent(), info.getSplitSize(), info.getNewSize(),
+                info.getNewComponent(), info.getCutEdges(), info.getCutEdgesBefore(), info.getNumComponents(),
+                info.isBalanced() ? "balanced" : "unbalanced", info.getElapsedNanos() / 1e6);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.algorithm;
+
+/**
+ * Progress of a partitioning run and cooperative cancellation (see GraphPartitioner.setMonitor).
+ * Methods are called from the partitioning thread and, for the parallel center search and the
+ * recursive driver, from ForkJoinPool workers, so implementations must be thread-safe.
+ */
+public interface PartitionMonitor {
+
+    enum Phase {
+        COMPONENTS("składowe spójności"),
+        CENTER_SEARCH("szukanie centrum"),
+        GROWTH("podział na grupy"),
+        BALANCING("balansowanie grup"),
+        REFINEMENT("refinement FM"),
+        SPLIT("rozcinanie krawędzi");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    PartitionMonitor NONE = new PartitionMonitor() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    // Cut number cut (counted from 1) out of totalCuts is being attempted
+    default void cutStarted(int cut, int totalCuts) {
+    }
+
+    default void phaseStarted(Phase phase) {
+    }
+
+    // Checked regularly inside the partitioning loops; once true, the run ends with a CancellationException
+    boolean isCancelled();
+}
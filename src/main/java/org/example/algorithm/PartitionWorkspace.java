@@ -0,0 +1,117 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Scratch state shared by the cuts of one partitioning run: BFS engines, the FM refiner, the group balancer
+ * and epoch-stamped marks are sized for the whole graph but allocated once, so a cut only pays for the
+ * component it splits. Cuts remove edges from the graph's working copy of the adjacency in place, so the
+ * arrays everything is bound to stay valid for the whole run.
+ * A workspace serves one graph on one thread at a time.
+ */
+public final class PartitionWorkspace {
+    private Graph graph;
+    private CsrGraph adjacency;
+
+    private EccentricityEngine engine;
+    private ParallelEccentricity.EnginePool enginePool;
+    private FmRefiner refiner;
+    private GroupBalancer balancer;
+
+    // mark[v] == epoch means v is marked in the current search; label holds per-search data of marked vertices
+    private int[] mark = new int[0];
+    private int[] label = new int[0];
+    private int[] stack = new int[0];
+    private int epoch;
+
+    // The two groups of the split being built
+    private int[] group1 = new int[0];
+    private int[] group2 = new int[0];
+
+    // Binds the workspace to graph, switching it to a working copy of the adjacency first (once per run)
+    void bind(Graph graph) {
+        graph.makeAdjacencyMutable();
+        CsrGraph current = graph.getAdjacency();
+        if (graph == this.graph && current == adjacency) {
+            return;
+        }
+        this.graph = graph;
+        this.adjacency = current;
+        engine = null;
+        enginePool = null;
+        refiner = null;
+        balancer = null;
+
+        int numVertices = current.getNumVertices();
+        if (mark.length < numVertices) {
+            mark = new int[numVertices];
+            label = new int[numVertices];
+            stack = new int[numVertices];
+            group1 = new int[numVertices];
+            group2 = new int[numVertices];
+            epoch = 0;
+        }
+    }
+
+    EccentricityEngine engine() {
+        if (engine == null) {
+            engine = new EccentricityEngine(adjacency);
+        }
+        return engine;
+    }
+
+    ParallelEccentricity.EnginePool enginePool() {
+        if (enginePool == null) {
+            CsrGraph bound = adjacency;
+            enginePool = new ParallelEccentricity.EnginePool(() -> new EccentricityEngine(bound));
+        }
+        return enginePool;
+    }
+
+    FmRefiner refiner() {
+        if (refiner == null) {
+            refiner = new FmRefiner(graph);
+        }
+        return refiner;
+    }
+
+    GroupBalancer balancer() {
+        if (balancer == null) {
+            balancer = new GroupBalancer(graph);
+        }
+        return balancer;
+    }
+
+    // Starts a new search over mark[] and returns its epoch
+    int nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    int[] mark() {
+        return mark;
+    }
+
+    int[] label() {
+        return label;
+    }
+
+    int[] stack() {
+        return stack;
+    }
+
+    int[] group1() {
+        return group1;
+    }
+
+    int[] group2() {
+        return group2;
+    }
+}
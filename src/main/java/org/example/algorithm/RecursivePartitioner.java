@@ -0,0 +1,261 @@
+package org.example.algorithm;
+
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+import org.example.model.PartitionResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recursive bisection driver: every component is extracted into its own small Graph and bisected with
+ * GraphPartitioner.partitionGraph; both halves are then partitioned independently as tasks on the
+ * GraphPartitioner ForkJoinPool. The parts requested for a component are split between its halves
+ * (the larger half gets the extra one), so numCuts cuts give numCuts + 1 parts per connected input.
+ * A part that cannot be bisected within the margin gives up the rest of its share; like the sequential
+ * driver, which simply cuts the next component that can be cut, the missing cuts are then distributed
+ * over the remaining parts in another round, until numCuts is reached or no part can be cut.
+ *
+ * Tasks never share mutable state, they only report their cut. Afterwards the cuts are replayed in a fixed
+ * order (round, tree level, then root part, then position in the level), so cut numbers, component ids
+ * and the PartitionInfo list do not depend on thread scheduling.
+ */
+public class RecursivePartitioner {
+
+    // One performed bisection: the vertices (global ids) that went to the new component
+    private static final class Cut {
+        final int round;
+        final int root;
+        final int depth;
+        final long path;
+        final int[] moved;
+        final int cutEdgesBefore;
+        final int cutEdges;
+        final long elapsedNanos;
+
+        Cut(int round, int root, int depth, long path, int[] moved, int cutEdgesBefore, int cutEdges, long elapsedNanos) {
+            this.round = round;
+            this.root = root;
+            this.depth = depth;
+            this.path = path;
+            this.moved = moved;
+            this.cutEdgesBefore = cutEdgesBefore;
+            this.cutEdges = cutEdges;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    // A part left without a cut: its vertices (sorted global ids) and, once extracted, its standalone graph
+    private static final class Piece {
+        final Graph sub;
+        final int[] globalIds;
+
+        Piece(Graph sub, int[] globalIds) {
+            this.sub = sub;
+            this.globalIds = globalIds;
+        }
+    }
+
+    private static final Comparator<Cut> REPLAY_ORDER = Comparator.<Cut>comparingInt(c -> c.round)
+            .thenComparingInt(c -> c.depth)
+            .thenComparingInt(c -> c.root)
+            .thenComparingLong(c -> c.path);
+
+    /**
+     * Makes up to numCuts cuts in graph (components must be up to date, see findConnectedComponents) and
+     * returns one PartitionInfo per cut, like the sequential driver. At the end graph holds the final
+     * components with all cut edges removed. If the run is cancelled, the cuts completed until then are
+     * applied and returned (check the monitor to tell a cancelled run from one that ran out of cuts).
+     */
+    public static List<PartitionResult.PartitionInfo> partition(Graph graph, int numCuts, int marginPercent) {
+        CsrGraph adjacency = graph.getAdjacency();
+        ConcurrentLinkedQueue<Cut> cuts = new ConcurrentLinkedQueue<>();
+
+        List<Piece> pieces = new ArrayList<>();
+        for (int comp = 0; comp < graph.getNumComponents(); comp++) {
+            if (graph.getComponentSize(comp) < 2) continue;
+            pieces.add(new Piece(null, Arrays.copyOf(graph.getComponentVertices(comp), graph.getComponentSize(comp))));
+        }
+
+        for (int round = 0; cuts.size() < numCuts && !GraphPartitioner.getMonitor().isCancelled(); round++) {
+            int[] sizes = new int[pieces.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = pieces.get(i).globalIds.length;
+            }
+            int[] parts = distributeParts(sizes, numCuts - cuts.size());
+
+            // Parts that get no cut this round stay open, the others report theirs when they stop
+            ConcurrentLinkedQueue<Piece> open = new ConcurrentLinkedQueue<>();
+            List<BisectTask> tasks = new ArrayList<>();
+            for (int i = 0; i < parts.length; i++) {
+                Piece piece = pieces.get(i);
+                if (parts[i] < 2) {
+                    open.add(piece);
+                    continue;
+                }
+                Graph sub = piece.sub != null ? piece.sub : extract(adjacency, piece.globalIds, piece.globalIds.length);
+                tasks.add(new BisectTask(sub, piece.globalIds, parts[i], round, i, 0, 0, marginPercent, cuts, open));
+            }
+            if (tasks.isEmpty()) break;
+
+            GraphPartitioner.getPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+
+            // Next round in a fixed order (by lowest vertex), whatever order the tasks finished in
+            pieces = new ArrayList<>(open);
+            pieces.sort(Comparator.comparingInt(piece -> piece.globalIds[0]));
+        }
+
+        Cut[] ordered = cuts.toArray(new Cut[0]);
+        Arrays.sort(ordered, REPLAY_ORDER);
+        return replay(graph, ordered, marginPercent);
+    }
+
+    // Number of parts per piece: extraParts go one by one to the piece with most vertices per part
+    private static int[] distributeParts(int[] sizes, int extraParts) {
+        int[] parts = new int[sizes.length];
+        Arrays.fill(parts, 1);
+
+        PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> {
+            long lhs = (long) sizes[a] * parts[b];
+            long rhs = (long) sizes[b] * parts[a];
+            return lhs != rhs ? Long.compare(rhs, lhs) : Integer.compare(a, b);
+        });
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] >= 2) queue.add(i);
+        }
+
+        for (int i = 0; i < extraParts && !queue.isEmpty(); i++) {
+            int piece = queue.poll();
+            parts[piece]++;
+            if (parts[piece] < sizes[piece]) queue.add(piece);
+        }
+        return parts;
+    }
+
+    // Standalone single-component graph of the given (sorted) vertices, with local ids
+    private static Graph extract(CsrGraph adjacency, int[] vertices, int count) {
+        Graph sub = new Graph(count, true);
+        sub.setAdjacency(adjacency.induced(vertices, count));
+        sub.setComponents(1);
+        return sub;
+    }
+
+    private static final class BisectTask extends RecursiveAction {
+        private final Graph sub;
+        private final int[] globalIds;
+        private final int parts;
+        private final int round;
+        private final int root;
+        private final int depth;
+        private final long path;
+        private final int marginPercent;
+        private final ConcurrentLinkedQueue<Cut> cuts;
+        private final ConcurrentLinkedQueue<Piece> open;
+
+        BisectTask(Graph sub, int[] globalIds, int parts, int round, int root, int depth, long path, int marginPercent,
+                   ConcurrentLinkedQueue<Cut> cuts, ConcurrentLinkedQueue<Piece> open) {
+            this.sub = sub;
+            this.globalIds = globalIds;
+            this.parts = parts;
+            this.round = round;
+            this.root = root;
+            this.depth = depth;
+            this.path = path;
+            this.marginPercent = marginPercent;
+            this.cuts = cuts;
+            this.open = open;
+        }
+
+        @Override
+        protected void compute() {
+            if (sub.getNumVertices() < 2) return;
+            if (parts < 2) {
+                open.add(new Piece(sub, globalIds));
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                // A part that cannot be cut is dropped, its share goes to the other parts in the next round
+                if (!GraphPartitioner.partitionGraph(sub, marginPercent)) return;
+            } catch (CancellationException e) {
+                // The cut is not made; the other tasks stop the same way and the completed cuts are kept
+                return;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            // Component 0 kept group 1, component 1 is the new one
+            int size0 = sub.getComponentSize(0);
+            int size1 = sub.getComponentSize(1);
+            int[] local0 = Arrays.copyOf(sub.getComponentVertices(0), size0);
+            int[] local1 = Arrays.copyOf(sub.getComponentVertices(1), size1);
+            int[] global0 = toGlobal(local0);
+            int[] global1 = toGlobal(local1);
+            cuts.add(new Cut(round, root, depth, path, global1, sub.getLastCutBefore(), sub.getLastCutAfter(), elapsed));
+
+            int parts0 = size0 >= size1 ? (parts + 1) / 2 : parts / 2;
+            int parts1 = parts - parts0;
+            CsrGraph adjacency = sub.getAdjacency();
+            invokeAll(
+                    new BisectTask(extract(adjacency, local0, size0), global0, parts0, round, root, depth + 1, path * 2,
+                            marginPercent, cuts, open),
+                    new BisectTask(extract(adjacency, local1, size1), global1, parts1, round, root, depth + 1,
+                            path * 2 + 1, marginPercent, cuts, open));
+        }
+
+        private int[] toGlobal(int[] local) {
+            int[] global = new int[local.length];
+            for (int i = 0; i < local.length; i++) {
+                global[i] = globalIds[local[i]];
+            }
+            return global;
+        }
+    }
+
+    // Applies the cuts in order, recording a PartitionInfo after each one, and stores the result in graph
+    private static List<PartitionResult.PartitionInfo> replay(Graph graph, Cut[] ordered, int marginPercent) {
+        int numVertices = graph.getNumVertices();
+        int[] label = Arrays.copyOf(graph.getComponent(), numVertices);
+        int numComponents = graph.getNumComponents();
+        int[] sizes = new int[numComponents + ordered.length];
+        for (int v = 0; v < numVertices; v++) {
+            sizes[label[v]]++;
+        }
+        PartitionResult.CutHistory history = new PartitionResult.CutHistory(label, numVertices);
+        List<PartitionResult.PartitionInfo> results = new ArrayList<>();
+
+        for (int i = 0; i < ordered.length; i++) {
+            Cut cut = ordered[i];
+            int splitComponent = label[cut.moved[0]];
+            int newComponent = numComponents++;
+            for (int v : cut.moved) {
+                label[v] = newComponent;
+            }
+            sizes[splitComponent] -= cut.moved.length;
+            sizes[newComponent] = cut.moved.length;
+
+            PartitionResult.PartitionInfo info = new PartitionResult.PartitionInfo(i + 1, numComponents, marginPercent,
+                    history, cut.moved, newComponent);
+            info.setBalanced(true);
+            info.setCutEdges(cut.cutEdgesBefore, cut.cutEdges);
+            info.setSplit(splitComponent, sizes[splitComponent]);
+            info.setElapsedNanos(cut.elapsedNanos);
+            results.add(info);
+        }
+
+        System.arraycopy(label, 0, graph.getComponent(), 0, numVertices);
+        graph.setComponents(numComponents);
+        graph.setAdjacency(graph.getAdjacency().filterEdges((u, v) -> label[u] == label[v]));
+        return results;
+    }
+}
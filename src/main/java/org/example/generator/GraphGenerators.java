@@ -0,0 +1,490 @@
+package org.example.generator;
+
+import org.example.model.CsrGraph;
+import org.example.model.GraphBuilder;
+import org.example.model.GraphException;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic graphs for load and scaling tests, given by a spec string:
+ *   grid:WxH          2D grid mesh, 4 neighbours
+ *   grid3d:XxYxZ      3D grid mesh, 6 neighbours
+ *   rgg:N:DEG         random geometric graph in the unit square, expected degree DEG
+ *   er:N:DEG          Erdos-Renyi G(n, p) with p = DEG / (N - 1)
+ *   ba:N:M            Barabasi-Albert, every new vertex attaches to M existing ones by degree
+ *   regular:N:D       random D-regular graph (configuration model, loops and duplicates dropped)
+ *   multi:K:SPEC      K disconnected copies of SPEC, copy i generated with seed + i
+ * Grids, rgg and er are streamed in O(N) memory; ba keeps one int per edge and regular is built in memory.
+ */
+public final class GraphGenerators {
+
+    private GraphGenerators() {
+    }
+
+    public static SyntheticGraph fromSpec(String spec, long seed) {
+        String[] parts = spec.split(":", 3);
+        try {
+            switch (parts[0]) {
+                case "grid": {
+                    int[] size = dimensions(parts[1], 2);
+                    return grid(size[0], size[1]);
+                }
+                case "grid3d": {
+                    int[] size = dimensions(parts[1], 3);
+                    return grid3d(size[0], size[1], size[2]);
+                }
+                case "rgg":
+                    return randomGeometric(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), seed);
+                case "er":
+                    return erdosRenyi(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), seed);
+                case "ba":
+                    return barabasiAlbert(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), seed);
+                case "regular":
+                    return randomRegular(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), seed);
+                case "multi": {
+                    int copies = Integer.parseInt(parts[1]);
+                    if (copies < 1) break;
+                    SyntheticGraph[] graphs = new SyntheticGraph[copies];
+                    for (int i = 0; i < copies; i++) {
+                        graphs[i] = fromSpec(parts[2], seed + i);
+                    }
+                    return disjoint(spec, graphs);
+                }
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Missing parameter, reported below
+        }
+        throw new IllegalArgumentException("niepoprawny opis grafu " + spec);
+    }
+
+    // Materializes the graph as an (undirected, sorted) CSR adjacency
+    public static CsrGraph toCsrGraph(SyntheticGraph graph) {
+        int n = graph.getNumVertices();
+        int[] offsets = new int[n + 1];
+        int[][] columns = {new int[Math.max(16, n)]};
+        int[] size = {0};
+        graph.generate((vertex, neighbors, count) -> {
+            if (size[0] + (long) count > Integer.MAX_VALUE - 8) {
+                throw new GraphException("Błąd: Graf " + graph.getSpec() + " ma zbyt wiele krawędzi, by zbudować go w pamięci");
+            }
+            if (size[0] + count > columns[0].length) {
+                columns[0] = Arrays.copyOf(columns[0], (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(size[0] + (long) count, columns[0].length * 3L / 2)));
+            }
+            System.arraycopy(neighbors, 0, columns[0], size[0], count);
+            size[0] += count;
+            offsets[vertex + 1] = size[0];
+        });
+        return new GraphBuilder(n).addRows(offsets, columns[0]).sortedNeighbors().build();
+    }
+
+    // ====================== GRIDS ======================
+
+    public static SyntheticGraph grid(int width, int height) {
+        return grid3d(width, height, 1, "grid:" + width + "x" + height);
+    }
+
+    public static SyntheticGraph grid3d(int width, int height, int depth) {
+        return grid3d(width, height, depth, "grid3d:" + width + "x" + height + "x" + depth);
+    }
+
+    private static SyntheticGraph grid3d(int width, int height, int depth, String spec) {
+        int n = checkedVertexCount((long) width * height * depth, spec);
+        int layer = width * height;
+        return new SyntheticGraph() {
+            @Override
+            public String getSpec() {
+                return spec;
+            }
+
+            @Override
+            public int getNumVertices() {
+                return n;
+            }
+
+            @Override
+            public int getRowWidth() {
+                return Math.max(1, width);
+            }
+
+            @Override
+            public void generate(RowSink sink) {
+                int[] row = new int[3];
+                int v = 0;
+                for (int z = 0; z < depth; z++) {
+                    for (int y = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++, v++) {
+                            int count = 0;
+                            if (x + 1 < width) row[count++] = v + 1;
+                            if (y + 1 < height) row[count++] = v + width;
+                            if (z + 1 < depth) row[count++] = v + layer;
+                            sink.row(v, row, count);
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    // ====================== RANDOM GEOMETRIC ======================
+
+    /**
+     * Points uniform in the unit square, joined when closer than r = sqrt(DEG / (pi N)).
+     * Vertices are numbered cell by cell of a grid with cells of side >= r, so ids are spatially local
+     * and only the 3x3 neighbouring cells have to be scanned.
+     */
+    public static SyntheticGraph randomGeometric(int n, double averageDegree, long seed) {
+        String spec = "rgg:" + n + ":" + averageDegree;
+        checkPositive(n, spec);
+        double radius = Math.min(1.0, Math.sqrt(averageDegree / (Math.PI * n)));
+        int side = (int) Math.max(1, Math.min(Math.floor(1.0 / radius), Math.sqrt(n) + 1));
+        return new SyntheticGraph() {
+            @Override
+            public String getSpec() {
+                return spec;
+            }
+
+            @Override
+            public int getNumVertices() {
+                return n;
+            }
+
+            @Override
+            public void generate(RowSink sink) {
+                SplittableRandom random = new SplittableRandom(seed);
+                float[] px = new float[n];
+                float[] py = new float[n];
+                int[] cellStart = new int[side * side + 1];
+                int[] cell = new int[n];
+                for (int i = 0; i < n; i++) {
+                    px[i] = (float) random.nextDouble();
+                    py[i] = (float) random.nextDouble();
+                    cell[i] = Math.min(side - 1, (int) (py[i] * side)) * side + Math.min(side - 1, (int) (px[i] * side));
+                    cellStart[cell[i] + 1]++;
+                }
+                for (int c = 0; c < side * side; c++) {
+                    cellStart[c + 1] += cellStart[c];
+                }
+                // Counting sort by cell: x[v], y[v] of the renumbered vertices
+                float[] x = new float[n];
+                float[] y = new float[n];
+                int[] next = Arrays.copyOf(cellStart, side * side);
+                for (int i = 0; i < n; i++) {
+                    int v = next[cell[i]]++;
+                    x[v] = px[i];
+                    y[v] = py[i];
+                }
+                px = null;
+                py = null;
+                cell = null;
+
+                double r2 = radius * radius;
+                int[] row = new int[16];
+                for (int cy = 0; cy < side; cy++) {
+                    for (int cx = 0; cx < side; cx++) {
+                        int c = cy * side + cx;
+                        for (int v = cellStart[c]; v < cellStart[c + 1]; v++) {
+                            int count = 0;
+                            for (int ny = Math.max(0, cy - 1); ny <= Math.min(side - 1, cy + 1); ny++) {
+                                for (int nx = Math.max(0, cx - 1); nx <= Math.min(side - 1, cx + 1); nx++) {
+                                    int nc = ny * side + nx;
+                                    for (int u = Math.max(v + 1, cellStart[nc]); u < cellStart[nc + 1]; u++) {
+                                        double dx = x[u] - x[v];
+                                        double dy = y[u] - y[v];
+                                        if (dx * dx + dy * dy <= r2) {
+                                            if (count == row.length) row = Arrays.copyOf(row, count * 2);
+                                            row[count++] = u;
+                                        }
+                                    }
+                                }
+                            }
+                            sink.row(v, row, count);
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    // ====================== ERDOS-RENYI ======================
+
+    /**
+     * G(n, p) by geometric skipping over the vertex pairs (Batagelj and Brandes), O(N + M) time.
+     * Row v lists the neighbours w < v.
+     */
+    public static SyntheticGraph erdosRenyi(int n, double averageDegree, long seed) {
+        String spec = "er:" + n + ":" + averageDegree;
+        checkPositive(n, spec);
+        double p = n > 1 ? Math.min(1.0, averageDegree / (n - 1)) : 0.0;
+        return new SyntheticGraph() {
+            @Override
+            public String getSpec() {
+                return spec;
+            }
+
+            @Override
+            public int getNumVertices() {
+                return n;
+            }
+
+            @Override
+            public void generate(RowSink sink) {
+                SplittableRandom random = new SplittableRandom(seed);
+                int[] row = new int[16];
+                int count = 0;
+                int v = 1;
+                long w = -1;
+                sink.row(0, row, 0);
+                double logQ = Math.log(1.0 - p);
+                while (v < n && p > 0) {
+                    long skip = p >= 1.0 ? 0 : (long) Math.floor(Math.log(1.0 - random.nextDouble()) / logQ);
+                    w += 1 + skip;
+                    while (w >= v && v < n) {
+                        sink.row(v, row, count);
+                        count = 0;
+                        w -= v;
+                        v++;
+                    }
+                    if (v < n) {
+                        if (count == row.length) row = Arrays.copyOf(row, count * 2);
+                        row[count++] = (int) w;
+                    }
+                }
+                for (; v < n; v++) {
+                    sink.row(v, row, 0);
+                }
+            }
+        };
+    }
+
+    // ====================== BARABASI-ALBERT ======================
+
+    /**
+     * Preferential attachment starting from a clique of M + 1 vertices. A target is picked as a random
+     * endpoint of a random existing edge, which selects vertices proportionally to their degree;
+     * only the target of every edge is stored, its source follows from the edge number.
+     * Row v lists the (distinct) neighbours w < v.
+     */
+    public static SyntheticGraph barabasiAlbert(int n, int edgesPerVertex, long seed) {
+        String spec = "ba:" + n + ":" + edgesPerVertex;
+        checkPositive(n, spec);
+        int m = Math.max(1, Math.min(edgesPerVertex, n - 1));
+        int clique = Math.min(n, m + 1);
+        long seedEdges = (long) clique * (clique - 1) / 2;
+        long attachedEdges = (long) (n - clique) * m;
+        if (attachedEdges > Integer.MAX_VALUE - 8) {
+            throw new GraphException("Błąd: Graf " + spec + " ma zbyt wiele krawędzi (" + (seedEdges + attachedEdges) + ")");
+        }
+        return new SyntheticGraph() {
+            @Override
+            public String getSpec() {
+                return spec;
+            }
+
+            @Override
+            public int getNumVertices() {
+                return n;
+            }
+
+            @Override
+            public void generate(RowSink sink) {
+                SplittableRandom random = new SplittableRandom(seed);
+                int[] row = new int[Math.max(m, clique)];
+                for (int v = 0; v < clique; v++) {
+                    for (int w = 0; w < v; w++) {
+                        row[w] = w;
+                    }
+                    sink.row(v, row, v);
+                }
+                // Seed clique edges in order (1,0), (2,0), (2,1), ...
+                int[] seedSource = new int[(int) seedEdges];
+                int[] seedTarget = new int[(int) seedEdges];
+                for (int v = 1, e = 0; v < clique; v++) {
+                    for (int w = 0; w < v; w++, e++) {
+                        seedSource[e] = v;
+                        seedTarget[e] = w;
+                    }
+                }
+
+                int[] targets = new int[(int) attachedEdges];
+                long edges = seedEdges;
+                for (int v = clique; v < n; v++) {
+                    int count = 0;
+                    while (count < m) {
+                        long endpoint = random.nextLong(2 * edges);
+                        long e = endpoint >> 1;
+                        int target;
+                        if (e < seedEdges) {
+                            target = (endpoint & 1) == 0 ? seedSource[(int) e] : seedTarget[(int) e];
+                        } else {
+                            long attached = e - seedEdges;
+                            target = (endpoint & 1) == 0 ? clique + (int) (attached / m) : targets[(int) attached];
+                        }
+                        if (!contains(row, count, target)) {
+                            row[count++] = target;
+                        }
+                    }
+                    System.arraycopy(row, 0, targets, (int) (edges - seedEdges), m);
+                    edges += m;
+                    sink.row(v, row, m);
+                }
+            }
+        };
+    }
+
+    // ====================== RANDOM REGULAR ======================
+
+    // Built in memory (the configuration model pairs stubs in random order), for benchmark-sized graphs
+    public static SyntheticGraph randomRegular(int n, int degree, long seed) {
+        String spec = "regular:" + n + ":" + degree;
+        checkPositive(n, spec);
+        return new SyntheticGraph() {
+            @Override
+            public String getSpec() {
+                return spec;
+            }
+
+            @Override
+            public int getNumVertices() {
+                return n;
+            }
+
+            @Override
+            public void generate(RowSink sink) {
+                SplittableRandom random = new SplittableRandom(seed);
+                long stubCount = (long) n * degree - ((long) n * degree) % 2;
+                if (stubCount > Integer.MAX_VALUE - 8) {
+                    throw new GraphException("Błąd: Graf " + spec + " jest zbyt duży, by zbudować go w pamięci");
+                }
+                int[] stubs = new int[(int) stubCount];
+                for (int i = 0; i < stubs.length; i++) {
+                    stubs[i] = i / degree;
+                }
+                for (int i = stubs.length - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int t = stubs[i];
+                    stubs[i] = stubs[j];
+                    stubs[j] = t;
+                }
+                GraphBuilder builder = new GraphBuilder(n);
+                for (int i = 0; i + 1 < stubs.length; i += 2) {
+                    if (stubs[i] != stubs[i + 1]) builder.addEdge(stubs[i], stubs[i + 1]);
+                }
+                emitForwardRows(builder.sortedNeighbors().build(), sink);
+            }
+        };
+    }
+
+    // ====================== DISCONNECTED ======================
+
+    // The graphs side by side, vertices of graph i shifted by the sizes of graphs 0..i-1
+    public static SyntheticGraph disjoint(String spec, SyntheticGraph... graphs) {
+        long total = 0;
+        int partCount = 0;
+        for (SyntheticGraph graph : graphs) {
+            total += graph.getNumVertices();
+            partCount += graph.getPartSizes().length;
+        }
+        int n = checkedVertexCount(total, spec);
+        int[] partSizes = new int[partCount];
+        int p = 0;
+        for (SyntheticGraph graph : graphs) {
+            for (int size : graph.getPartSizes()) {
+                partSizes[p++] = size;
+            }
+        }
+        return new SyntheticGraph() {
+            @Override
+            public String getSpec() {
+                return spec;
+            }
+
+            @Override
+            public int getNumVertices() {
+                return n;
+            }
+
+            @Override
+            public int[] getPartSizes() {
+                return partSizes.clone();
+            }
+
+            @Override
+            public void generate(RowSink sink) {
+                int[] shifted = new int[16];
+                int offset = 0;
+                for (SyntheticGraph graph : graphs) {
+                    int base = offset;
+                    int[][] buffer = {shifted};
+                    graph.generate((vertex, neighbors, count) -> {
+                        if (count > buffer[0].length) buffer[0] = new int[Math.max(count, buffer[0].length * 2)];
+                        for (int i = 0; i < count; i++) {
+                            buffer[0][i] = neighbors[i] + base;
+                        }
+                        sink.row(vertex + base, buffer[0], count);
+                    });
+                    shifted = buffer[0];
+                    offset += graph.getNumVertices();
+                }
+            }
+        };
+    }
+
+    // ====================== HELPERS ======================
+
+    private static void emitForwardRows(CsrGraph adjacency, SyntheticGraph.RowSink sink) {
+        int[] offsets = adjacency.getOffsets();
+        int[] ends = adjacency.getEnds();
+        int[] targets = adjacency.getTargets();
+        int[] row = new int[16];
+        for (int v = 0; v < adjacency.getNumVertices(); v++) {
+            int count = 0;
+            for (int e = offsets[v]; e < ends[v]; e++) {
+                if (targets[e] > v) {
+                    if (count == row.length) row = Arrays.copyOf(row, count * 2);
+                    row[count++] = targets[e];
+                }
+            }
+            sink.row(v, row, count);
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static int[] dimensions(String text, int count) {
+        String[] parts = text.split("x");
+        if (parts.length != count) {
+            throw new IllegalArgumentException("niepoprawne wymiary siatki " + text);
+        }
+        int[] size = new int[count];
+        for (int i = 0; i < count; i++) {
+            size[i] = Integer.parseInt(parts[i]);
+            if (size[i] < 1) {
+                throw new IllegalArgumentException("niepoprawne wymiary siatki " + text);
+            }
+        }
+        return size;
+    }
+
+    private static void checkPositive(int n, String spec) {
+        if (n < 1) {
+            throw new IllegalArgumentException("niepoprawna liczba wierzchołków w " + spec);
+        }
+    }
+
+    private static int checkedVertexCount(long n, String spec) {
+        if (n > Integer.MAX_VALUE - 8) {
+            throw new GraphException("Błąd: Graf " + spec + " ma zbyt wiele wierzchołków (" + n + ")");
+        }
+        return (int) n;
+    }
+}
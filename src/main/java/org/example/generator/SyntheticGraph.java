@@ -0,0 +1,34 @@
+package org.example.generator;
+
+/**
+ * A reproducible generated graph, produced row by row so that it can be written to a file
+ * without ever holding all edges in memory (see SyntheticGraphWriter).
+ */
+public interface SyntheticGraph {
+
+    interface RowSink {
+        // neighbors[0..count) of vertex, valid only during the call
+        void row(int vertex, int[] neighbors, int count);
+    }
+
+    // Spec string the graph can be recreated from (see GraphGenerators.fromSpec)
+    String getSpec();
+
+    int getNumVertices();
+
+    /**
+     * Calls sink once for every vertex, in increasing order. Every undirected edge appears in exactly
+     * one row; the loaders symmetrize the rows. Each call produces the same rows.
+     */
+    void generate(RowSink sink);
+
+    // Width of the row layout written as col_index/row_ptr (vertices_by_rows/row_indexes in .bin)
+    default int getRowWidth() {
+        return Math.max(1, (int) Math.ceil(Math.sqrt(getNumVertices())));
+    }
+
+    // Sizes of consecutive vertex ranges with no edges between them, written as separate .bin subgraphs
+    default int[] getPartSizes() {
+        return new int[]{getNumVertices()};
+    }
+}
@@ -1,120 +1,164 @@
 package org.example.io;
 
 import org.example.model.Graph;
+import org.example.model.GraphBuilder;
+import org.example.model.GraphException;
 
 import java.io.*;
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class GraphLoaderBin {
+    // Poniżej tej liczby wpisów sąsiedztwa podgrafy są kopiowane w jednym wątku
+    private static final int PARALLEL_MIN_ENTRIES = 1 << 16;
 
     public static Graph loadGraph(String filePath) throws IOException {
+        return loadGraph(filePath, true);
+    }
+
+    /**
+     * Plik jest mapowany do pamięci i czytany przez widok IntBuffer (little-endian).
+     * Pierwsze przejście zapamiętuje położenie bloków adj/adjIndex każdego podgrafu,
+     * drugie kopiuje je hurtowo od razu na właściwe miejsce w scalonych tablicach CSR.
+     * Przy parallel = true podgrafy są kopiowane równolegle (każdy do własnego, rozłącznego fragmentu tablic).
+     */
+    public static Graph loadGraph(String filePath, boolean parallel) throws IOException {
         Graph graph = new Graph();
 
-        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new GraphException("Błąd: Plik " + filePath + " jest zbyt duży (" + fileSize + " B)");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            IntBuffer ints = mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
 
-            // maxVerticesInRow
-            int maxVertices = readUInt32(dis);
-            graph.setMaxVertices(maxVertices); // Możesz nadpisać później, jeśli chcesz ustawić rzeczywistą sumę wierzchołków
+            // maxVerticesInRow - pomijamy: tego pola nie da się zweryfikować, więc nie rezerwujemy według niego
+            // pamięci; rozmiar grafu wynika z liczby wierzchołków sprawdzonych bloków (setCSRData/setAdjacency)
+            readUInt32(ints);
 
             // vertices_by_rows (pomijamy, niepotrzebne do sąsiedztwa)
-            int vertexRowListLength = readUInt32(dis);
-            dis.skipBytes(vertexRowListLength * 4);
+            skip(ints, readUInt32(ints));
 
             // row_indexes (pomijamy, niepotrzebne do sąsiedztwa)
-            int rowIndexListLength = readUInt32(dis);
-            dis.skipBytes(rowIndexListLength * 4);
+            skip(ints, readUInt32(ints));
 
             // liczba grafów
-            int graphCount = readUInt32(dis);
+            int graphCount = readUInt32(ints);
 
-            // Dane do scalania
+            // Indeks bloków: pozycje tablic adj/adjIndex w pliku (w intach) i offsety w scalonych tablicach
+            int[] adjPositions = new int[graphCount];
+            int[] adjIndexPositions = new int[graphCount];
+            int[] adjLengths = new int[graphCount];
+            int[] vertexCounts = new int[graphCount];
+            int[] vertexOffsets = new int[graphCount];
+            int[] adjOffsets = new int[graphCount];
             int totalVertices = 0;
             int totalAdjLen = 0;
-            int[][] allAdj = new int[graphCount][];
-            int[][] allAdjIndex = new int[graphCount][];
-            int[] vertexOffsets = new int[graphCount];
 
-            // Wczytaj dane wszystkich grafów
             for (int g = 0; g < graphCount; g++) {
-                int vertexCount = readUInt32(dis);
-                int edgeCount = readUInt32(dis); // nieużywane
-
-                int adjLen = readUInt32(dis);
-                int[] adj = new int[adjLen];
-                for (int i = 0; i < adjLen; i++) {
-                    adj[i] = readUInt32(dis);
+                int vertexCount = readUInt32(ints);
+                if (vertexCount < 0) {
+                    throw new GraphException("Błąd: Podgraf " + g + " ma ujemną liczbę wierzchołków: " + vertexCount);
                 }
+                readUInt32(ints); // edgeCount, nieużywane
 
-                int adjIndexLen = readUInt32(dis);
-                int[] adjIndex = new int[adjIndexLen];
-                for (int i = 0; i < adjIndexLen; i++) {
-                    adjIndex[i] = readUInt32(dis);
+                int adjLen = readUInt32(ints);
+                adjPositions[g] = ints.position();
+                skip(ints, adjLen);
+
+                int adjIndexLen = readUInt32(ints);
+                if (adjIndexLen != vertexCount + 1) {
+                    throw new GraphException("Błąd: Podgraf " + g + " ma " + vertexCount
+                            + " wierzchołków, ale " + adjIndexLen + " indeksów sąsiedztwa");
                 }
+                adjIndexPositions[g] = ints.position();
+                skip(ints, adjIndexLen);
 
-                // Zapamiętaj offsety
+                adjLengths[g] = adjLen;
+                vertexCounts[g] = vertexCount;
                 vertexOffsets[g] = totalVertices;
+                adjOffsets[g] = totalAdjLen;
                 totalVertices += vertexCount;
                 totalAdjLen += adjLen;
-
-                allAdj[g] = adj;
-                allAdjIndex[g] = adjIndex;
             }
 
             // Tworzymy scalone struktury
             int[] mergedAdj = new int[totalAdjLen];
             int[] mergedAdjIndex = new int[totalVertices + 1];
 
-            int adjPos = 0;
-            int vertexPos = 0;
-
-            for (int g = 0; g < graphCount; g++) {
-                int[] adj = allAdj[g];
-                int[] adjIdx = allAdjIndex[g];
-                int vOffset = vertexOffsets[g];
-
-                for (int v = 0; v < adjIdx.length - 1; v++) {
-                    int start = adjIdx[v];
-                    int end = adjIdx[v + 1];
-                    mergedAdjIndex[vertexPos + v] = adjPos;
-
-                    for (int i = start; i < end; i++) {
-                        // dodajemy offset do sąsiada
-                        mergedAdj[adjPos++] = adj[i] + vOffset;
-                    }
-                }
-                vertexPos += allAdjIndex[g].length - 1;
+            IntConsumer copy = g -> copySubgraph(ints, g, adjPositions[g], adjIndexPositions[g], adjLengths[g],
+                    vertexCounts[g], vertexOffsets[g], adjOffsets[g], mergedAdj, mergedAdjIndex);
+            if (parallel && graphCount > 1 && totalAdjLen >= PARALLEL_MIN_ENTRIES) {
+                IntStream.range(0, graphCount).parallel().forEach(copy);
+            } else {
+                IntStream.range(0, graphCount).forEach(copy);
             }
             mergedAdjIndex[totalVertices] = totalAdjLen;
 
-            // Ustaw dane CSR w grafie
+            // Ustaw dane CSR w grafie i zbuduj z nich sąsiedztwo (nieskierowane)
             graph.setCSRData(mergedAdj, mergedAdjIndex);
-
-            // Konwersja do listy sąsiedztwa
-            convertCSRToNeighbors(graph);
+            graph.setAdjacency(new GraphBuilder(totalVertices).addRows(mergedAdjIndex, mergedAdj).build());
         }
 
         return graph;
     }
 
+    // Kopiuje podgraf g na jego miejsce w scalonych tablicach, przesuwając numery wierzchołków i pozycje
+    private static void copySubgraph(IntBuffer ints, int g, int adjPosition, int adjIndexPosition, int adjLen,
+                                     int vertexCount, int vertexOffset, int adjOffset,
+                                     int[] mergedAdj, int[] mergedAdjIndex) {
+        IntBuffer view = ints.duplicate();
+
+        view.position(adjPosition);
+        view.get(mergedAdj, adjOffset, adjLen);
+        for (int i = adjOffset; i < adjOffset + adjLen; i++) {
+            // sąsiad musi należeć do podgrafu; dodajemy offset do sąsiada
+            int neighbor = mergedAdj[i];
+            if (neighbor < 0 || neighbor >= vertexCount) {
+                throw new GraphException("Błąd: Sąsiad " + neighbor + " spoza podgrafu " + g
+                        + " (" + vertexCount + " wierzchołków)");
+            }
+            mergedAdj[i] = neighbor + vertexOffset;
+        }
 
-    private static void convertCSRToNeighbors(Graph graph) {
-        graph.clearNeighbors();
-
-        int[] colIndex = graph.getColIndex();
-        int[] rowPtr = graph.getRowPtr();
-
-        for (int i = 0; i < rowPtr.length - 1; i++) {
-            for (int j = rowPtr[i]; j < rowPtr[i + 1]; j++) {
-                int neighbor = colIndex[j];
-                graph.addEdge(i, neighbor); // zakładamy nieskierowany graf
+        view.position(adjIndexPosition);
+        view.get(mergedAdjIndex, vertexOffset, vertexCount);
+        int first = vertexCount > 0 ? mergedAdjIndex[vertexOffset] : 0;
+        int last = view.get();
+        if (first != 0 || last != adjLen) {
+            throw new GraphException("Błąd: Niespójne indeksy sąsiedztwa w podgrafie " + g);
+        }
+        // Indeksy muszą rosnąć i mieścić się w [0, adjLen], inaczej wiersze nachodziłyby na siebie
+        int previous = 0;
+        for (int v = vertexOffset; v < vertexOffset + vertexCount; v++) {
+            int index = mergedAdjIndex[v];
+            if (index < previous || index > adjLen) {
+                throw new GraphException("Błąd: Niespójne indeksy sąsiedztwa w podgrafie " + g
+                        + " (wierzchołek " + (v - vertexOffset) + ")");
             }
+            previous = index;
+            mergedAdjIndex[v] = index + adjOffset;
         }
     }
 
-    private static int readUInt32(DataInputStream dis) throws IOException {
-        byte[] buffer = new byte[4];
-        dis.readFully(buffer);
-        return ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    private static int readUInt32(IntBuffer ints) throws IOException {
+        if (!ints.hasRemaining()) {
+            throw new EOFException("Nieoczekiwany koniec pliku");
+        }
+        return ints.get();
+    }
+
+    private static void skip(IntBuffer ints, int count) throws IOException {
+        if (count < 0 || count > ints.remaining()) {
+            throw new EOFException("Nieoczekiwany koniec pliku");
+        }
+        ints.position(ints.position() + count);
     }
 }
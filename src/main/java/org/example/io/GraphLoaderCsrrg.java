@@ -1,34 +1,36 @@
 package org.example.io;
 
 import org.example.model.Graph;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import org.example.model.GraphBuilder;
+import org.example.model.GraphException;
+import java.io.FileInputStream;
 import java.io.IOException;
 
 public class GraphLoaderCsrrg {
-    private static final int MAX_VERTICES = 4000; // Stała powinna być zdefiniowana w Graph
-
     public static Graph loadGraph(String filePath) throws IOException {
         Graph graph = new Graph();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            // Sekcja 1: max_vertices
-            int maxVertices = Integer.parseInt(reader.readLine().trim());
-            graph.setMaxVertices(maxVertices);
-            graph.initializeNeighbors(maxVertices);
+        try (IntSectionReader reader = new IntSectionReader(new FileInputStream(filePath))) {
+            // Sekcja 1: max_vertices - sprawdzamy tylko format; tej wartości nie da się zweryfikować,
+            // więc graf ma rozmiar wynikający z wczytanych tablic, a nie z nagłówka
+            int[] header = reader.readSection("max_vertices");
+            if (header.length != 1) {
+                throw new GraphException("Błąd: Sekcja max_vertices powinna zawierać jedną liczbę, a zawiera " + header.length);
+            }
 
             // Sekcja 2: col_index
-            int[] colIndex = parseLineToIntArray(reader.readLine());
+            int[] colIndex = reader.readSection("col_index");
+            graph.setMaxVertices(colIndex.length); // każdy wierzchołek ma swój wpis w col_index
 
             // Sekcja 3: row_ptr
-            int[] rowPtr = parseLineToIntArray(reader.readLine());
+            int[] rowPtr = reader.readSection("row_ptr");
             graph.setCSRData(colIndex, rowPtr);
 
             // Sekcja 4: group_list
-            int[] groupList = parseLineToIntArray(reader.readLine());
+            int[] groupList = reader.readSection("group_list");
 
             // Sekcja 5: group_ptr
-            int[] groupPtr = parseLineToIntArray(reader.readLine());
+            int[] groupPtr = reader.readSection("group_ptr");
             graph.setGroupData(groupList, groupPtr);
 
             // Konwersja do listy sąsiedztwa
@@ -38,15 +40,6 @@ public class GraphLoaderCsrrg {
         return graph;
     }
 
-    private static int[] parseLineToIntArray(String line) {
-        String[] parts = line.split(";");
-        int[] result = new int[parts.length];
-        for (int i = 0; i < parts.length; i++) {
-            result[i] = Integer.parseInt(parts[i].trim());
-        }
-        return result;
-    }
-
     private static void convertCSRToNeighbors(Graph graph) {
         int[] groupList = graph.getGroupList();
         int[] groupPtr = graph.getGroupPtr();
@@ -54,6 +47,7 @@ public class GraphLoaderCsrrg {
 
         // Wyczyść istniejące połączenia
         graph.clearNeighbors();
+        GraphBuilder builder = new GraphBuilder(graph.getNumVertices());
 
         int totalGroups = 0;
         while (totalGroups < groupPtr.length &&
@@ -71,9 +65,11 @@ public class GraphLoaderCsrrg {
 
             for (int i = startIdx + 1; i <= endIdx; i++) {
                 int member = groupList[i];
-                graph.addEdge(leader, member);
+                builder.addEdge(leader, member);
                 groupAssignment[member] = g + 1;
             }
         }
+
+        graph.setAdjacency(builder.build());
     }
 }
\ No newline at end of file
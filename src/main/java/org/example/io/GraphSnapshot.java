@@ -0,0 +1,298 @@
+package org.example.io;
+
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+import org.example.model.GraphException;
+import org.example.model.PartitionResult;
+import org.example.model.VertexPositions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binarny zrzut wczytanego (i ewentualnie podzielonego) grafu, czytany przez mapowanie pliku do pamięci.
+ *
+ * Format (little-endian, tablice int poprzedzone długością, -1 oznacza brak tablicy):
+ *   nagłówek:   MAGIC, VERSION, flagi, liczba wierzchołków, liczba składowych
+ *   graf:       offsets, targets (sąsiedztwo CSR), component, maxDistances, groupAssignment,
+ *               colIndex, rowPtr, groupList, groupPtr
+ *   pozycje:    (FLAG_POSITIONS) wyrównanie do 8 B, x[n], y[n] jako double (NaN = brak pozycji)
+ *   podziały:   (FLAG_PARTITIONS) liczba cięć, etykiety składowych przed pierwszym cięciem [n], dla każdego cięcia:
+ *               numer, liczba składowych, margines, zbalansowany (0/1), krawędzie cięcia przed/po refinemencie,
+ *               dzielona składowa, jej rozmiar, nowa składowa, czas w ns (long), wierzchołki nowej składowej
+ *   stopka:     CRC32 wszystkich wcześniejszych bajtów
+ */
+public class GraphSnapshot {
+    public static final String EXTENSION = ".gsnap";
+
+    private static final int MAGIC = 0x50534E47; // "GNSP"
+    private static final int VERSION = 1;
+    private static final int FLAG_POSITIONS = 1;
+    private static final int FLAG_PARTITIONS = 2;
+
+    private static final int HEADER_INTS = 5;
+    private static final int CUT_HEADER_INTS = 11;
+
+    public static class Snapshot {
+        private final Graph graph;
+        private final List<PartitionResult.PartitionInfo> partitions;
+
+        Snapshot(Graph graph, List<PartitionResult.PartitionInfo> partitions) {
+            this.graph = graph;
+            this.partitions = partitions;
+        }
+
+        public Graph getGraph() {
+            return graph;
+        }
+
+        // Pusta lista, jeśli zrzut nie zawiera wyników podziału
+        public List<PartitionResult.PartitionInfo> getPartitions() {
+            return partitions;
+        }
+    }
+
+    // ====================== ZAPIS ======================
+
+    /**
+     * Zapisuje graf i (jeśli partitions nie jest null ani puste) wyniki podziału.
+     */
+    public static void write(Graph graph, List<PartitionResult.PartitionInfo> partitions, String filePath) throws IOException {
+        CsrGraph adjacency = graph.getAdjacency().compact();
+        int n = graph.getNumVertices();
+        VertexPositions positions = graph.getVertexPositions();
+        boolean hasPositions = positions != null && positions.size() == n;
+        boolean hasPartitions = partitions != null && !partitions.isEmpty();
+
+        int flags = (hasPositions ? FLAG_POSITIONS : 0) | (hasPartitions ? FLAG_PARTITIONS : 0);
+
+        int[][] arrays = {
+                graph.getComponent(), graph.getMaxDistances(), graph.getGroupAssignment(),
+                graph.getColIndex(), graph.getRowPtr(), graph.getGroupList(), graph.getGroupPtr()
+        };
+        int[] lengths = {
+                n, n, n,
+                length(graph.getColIndex()), length(graph.getRowPtr()),
+                length(graph.getGroupList()), length(graph.getGroupPtr())
+        };
+
+        long size = 4L * HEADER_INTS;
+        size += 4L * (1 + n + 1) + 4L * (1 + adjacency.getNumEntries());
+        for (int length : lengths) {
+            size += 4L * (1 + Math.max(length, 0));
+        }
+        long positionsStart = 0;
+        if ((flags & FLAG_POSITIONS) != 0) {
+            positionsStart = align8(size);
+            size = positionsStart + 16L * n;
+        }
+        if (hasPartitions) {
+            size += 4L * (2 + n);
+            for (PartitionResult.PartitionInfo info : partitions) {
+                size += 4L * (CUT_HEADER_INTS + 1 + info.getNewSize());
+            }
+        }
+        size += 4; // CRC
+        if (size > Integer.MAX_VALUE) {
+            throw new GraphException("Błąd: Zrzut grafu jest zbyt duży (" + size + " B)");
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+
+            out.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(n).putInt(graph.getNumComponents());
+            putIntArray(out, adjacency.getOffsets(), n + 1);
+            putIntArray(out, adjacency.getTargets(), adjacency.getNumEntries());
+            for (int i = 0; i < arrays.length; i++) {
+                putIntArray(out, arrays[i], lengths[i]);
+            }
+
+            if ((flags & FLAG_POSITIONS) != 0) {
+                out.position((int) positionsStart);
+                DoubleBuffer doubles = out.asDoubleBuffer();
+                doubles.put(positions.getXs()).put(positions.getYs());
+                out.position(out.position() + 16 * n);
+            }
+
+            if (hasPartitions) {
+                out.putInt(partitions.size());
+                putIntArray(out, partitions.get(0).getPreviousLabels(), n);
+                for (PartitionResult.PartitionInfo info : partitions) {
+                    out.putInt(info.getCutNumber()).putInt(info.getNumComponents()).putInt(info.getMarginPercent())
+                            .putInt(info.isBalanced() ? 1 : 0).putInt(info.getCutEdgesBefore()).putInt(info.getCutEdges())
+                            .putInt(info.getSplitComponent()).putInt(info.getSplitSize()).putInt(info.getNewComponent())
+                            .putLong(info.getElapsedNanos());
+                    int[] moved = info.getMovedVertices();
+                    putIntArray(out, moved, moved.length);
+                }
+            }
+
+            out.putInt(checksum(out, out.position()));
+            out.force();
+        }
+    }
+
+    // ====================== ODCZYT ======================
+
+    public static Snapshot read(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < 4L * (HEADER_INTS + 1) || fileSize > Integer.MAX_VALUE) {
+                throw new GraphException("Błąd: " + filePath + " nie jest poprawnym zrzutem grafu (rozmiar " + fileSize + " B)");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            in.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (in.getInt(0) != MAGIC) {
+                throw new GraphException("Błąd: " + filePath + " nie jest zrzutem grafu");
+            }
+            int version = in.getInt(4);
+            if (version != VERSION) {
+                throw new GraphException("Błąd: Nieobsługiwana wersja zrzutu grafu: " + version + " (obsługiwana: " + VERSION + ")");
+            }
+            int dataSize = (int) fileSize - 4;
+            if (checksum(in, dataSize) != in.getInt(dataSize)) {
+                throw new GraphException("Błąd: Niezgodna suma kontrolna zrzutu grafu " + filePath);
+            }
+
+            in.position(8);
+            int flags = in.getInt();
+            int n = in.getInt();
+            int numComponents = in.getInt();
+
+            int[] offsets = getIntArray(in);
+            int[] targets = getIntArray(in);
+            CsrGraph adjacency = new CsrGraph(offsets, targets);
+            int[] component = getIntArray(in);
+            int[] maxDistances = getIntArray(in);
+            int[] groupAssignment = getIntArray(in);
+            int[] colIndex = getIntArray(in);
+            int[] rowPtr = getIntArray(in);
+            int[] groupList = getIntArray(in);
+            int[] groupPtr = getIntArray(in);
+
+            Graph graph = new Graph();
+            if (colIndex != null && rowPtr != null) {
+                graph.setCSRData(colIndex, rowPtr);
+            }
+            graph.setGroupData(groupList, groupPtr);
+            graph.setAdjacency(adjacency);
+            System.arraycopy(component, 0, graph.getComponent(), 0, n);
+            System.arraycopy(maxDistances, 0, graph.getMaxDistances(), 0, n);
+            System.arraycopy(groupAssignment, 0, graph.getGroupAssignment(), 0, n);
+            if (numComponents > 0) {
+                graph.setComponents(numComponents);
+            }
+
+            if ((flags & FLAG_POSITIONS) != 0) {
+                in.position((int) align8(in.position()));
+                double[] x = new double[n];
+                double[] y = new double[n];
+                DoubleBuffer doubles = in.asDoubleBuffer();
+                doubles.get(x).get(y);
+                in.position(in.position() + 16 * n);
+                graph.setVertexPositions(VertexPositions.wrap(x, y));
+            }
+
+            List<PartitionResult.PartitionInfo> partitions = new ArrayList<>();
+            if ((flags & FLAG_PARTITIONS) != 0) {
+                int cutCount = in.getInt();
+                readCuts(in, n, cutCount, partitions);
+            }
+
+            return new Snapshot(graph, partitions);
+        }
+    }
+
+    private static void readCuts(ByteBuffer in, int n, int cutCount, List<PartitionResult.PartitionInfo> partitions) {
+        int[] initialLabels = getLabels(in, n);
+        PartitionResult.CutHistory history = new PartitionResult.CutHistory(initialLabels, n);
+        for (int c = 0; c < cutCount; c++) {
+            int cutNumber = in.getInt();
+            int cutComponents = in.getInt();
+            int marginPercent = in.getInt();
+            boolean balanced = in.getInt() != 0;
+            int cutEdgesBefore = in.getInt();
+            int cutEdges = in.getInt();
+            int splitComponent = in.getInt();
+            int splitSize = in.getInt();
+            int newComponent = in.getInt();
+            long elapsedNanos = in.getLong();
+            int[] moved = getIntArray(in);
+            if (moved == null) {
+                throw new GraphException("Błąd: Uszkodzony zrzut grafu (brak wierzchołków cięcia " + cutNumber + ")");
+            }
+            for (int v : moved) {
+                if (v < 0 || v >= n) {
+                    throw new GraphException("Błąd: Uszkodzony zrzut grafu (wierzchołek " + v + " w cięciu " + cutNumber + ")");
+                }
+            }
+
+            PartitionResult.PartitionInfo info = new PartitionResult.PartitionInfo(cutNumber, cutComponents, marginPercent,
+                    history, moved, newComponent);
+            info.setBalanced(balanced);
+            info.setCutEdges(cutEdgesBefore, cutEdges);
+            info.setSplit(splitComponent, splitSize);
+            info.setElapsedNanos(elapsedNanos);
+            partitions.add(info);
+        }
+    }
+
+    private static int[] getLabels(ByteBuffer in, int n) {
+        int[] labels = getIntArray(in);
+        if (labels == null || labels.length != n) {
+            throw new GraphException("Błąd: Uszkodzony zrzut grafu (etykiety składowych długości " + length(labels) + ")");
+        }
+        return labels;
+    }
+
+    // ====================== POMOCNICZE ======================
+
+    private static int length(int[] array) {
+        return array == null ? -1 : array.length;
+    }
+
+    private static long align8(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void putIntArray(ByteBuffer out, int[] array, int length) {
+        out.putInt(length);
+        if (length <= 0) return;
+        out.asIntBuffer().put(array, 0, length);
+        out.position(out.position() + 4 * length);
+    }
+
+    private static int[] getIntArray(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (4L * length > in.remaining()) {
+            throw new GraphException("Błąd: Uszkodzony zrzut grafu (tablica długości " + length + ")");
+        }
+        int[] array = new int[length];
+        IntBuffer ints = in.asIntBuffer();
+        ints.get(array);
+        in.position(in.position() + 4 * length);
+        return array;
+    }
+
+    private static int checksum(ByteBuffer buffer, int length) {
+        ByteBuffer data = buffer.duplicate();
+        data.position(0).limit(length);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.io;
+
+import org.example.model.GraphException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Czyta kolejne linie tekstu postaci "1;2;3" bezpośrednio z bajtów do tablic int.
+ * Nie tworzy napisów - pamięć rośnie tylko z rozmiarem wynikowych tablic, a nie całej linii.
+ * Białe znaki wokół liczb są pomijane, końcowy średnik jest dozwolony, pusta linia to pusta tablica.
+ * Błędne dane zgłaszane są jako GraphException z numerem linii i kolumny.
+ */
+class IntSectionReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // Pozycja ostatnio przeczytanego znaku (numeracja od 1)
+    private int line = 1;
+    private int column = 0;
+    private boolean afterNewline = false;
+
+    IntSectionReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Czyta jedną linię jako tablicę liczb. name jest nazwą sekcji używaną w komunikatach błędów.
+     */
+    int[] readSection(String name) throws IOException {
+        int first = nextByte();
+        if (first == -1) {
+            throw new GraphException("Błąd: Brak sekcji " + name + " (koniec pliku w linii " + (afterNewline ? line + 1 : line) + ")");
+        }
+
+        int[] values = new int[16];
+        int count = 0;
+
+        long value = 0;
+        boolean negative = false;
+        boolean hasDigits = false;  // w bieżącej wartości były cyfry
+        boolean ended = false;      // po cyfrach wystąpił biały znak, czekamy na separator
+        boolean hasSign = false;
+
+        for (int c = first; ; c = nextByte()) {
+            if (c == '\n' || c == -1 || c == ';') {
+                if (hasDigits) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = (int) (negative ? -value : value);
+                } else if (hasSign || c == ';') {
+                    // Puste pole przed średnikiem (";;", ";1") albo samotny minus; pusta może być tylko
+                    // część po ostatnim średniku, czyli końcowy średnik
+                    throw error(name, "brak liczby");
+                }
+                if (c != ';') break;
+
+                value = 0;
+                negative = false;
+                hasDigits = false;
+                ended = false;
+                hasSign = false;
+            } else if (c >= '0' && c <= '9') {
+                if (ended) {
+                    throw error(name, "brak średnika między liczbami");
+                }
+                value = value * 10 + (c - '0');
+                if (value > (negative ? 1L << 31 : Integer.MAX_VALUE)) {
+                    throw error(name, "liczba poza zakresem int");
+                }
+                hasDigits = true;
+            } else if (c == '-' && !hasDigits && !hasSign) {
+                negative = true;
+                hasSign = true;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                if (hasDigits) ended = true;
+            } else {
+                throw error(name, "nieoczekiwany znak '" + (char) c + "'");
+            }
+        }
+
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private GraphException error(String name, String reason) {
+        return new GraphException("Błąd: Niepoprawne dane w sekcji " + name
+                + " (linia " + line + ", kolumna " + column + "): " + reason);
+    }
+
+    private int nextByte() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        int c = buffer[position++] & 0xFF;
+        if (afterNewline) {
+            line++;
+            column = 0;
+        }
+        column++;
+        afterNewline = c == '\n';
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, BUFFER_SIZE);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
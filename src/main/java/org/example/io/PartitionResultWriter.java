@@ -0,0 +1,64 @@
+package org.example.io;
+
+import org.example.model.Graph;
+import org.example.model.PartitionResult;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Zapis wyniku podziału do pliku tekstowego, liczby rozdzielone średnikami jak w .csrrg.
+ * Linie zaczynające się od '#' są komentarzami.
+ *
+ *   linia 1:          liczba wierzchołków;liczba wykonanych cięć;liczba zaplanowanych cięć;margines
+ *   kolejne linie:    numer cięcia;liczba składowych;zbalansowany (0/1);krawędzie cięcia;krawędzie przed refinementem;
+ *                     dzielona składowa;jej rozmiar po cięciu;nowa składowa;jej rozmiar;czas cięcia w mikrosekundach
+ *   ostatnia linia:   numer składowej każdego wierzchołka po ostatnim cięciu
+ */
+public class PartitionResultWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static void write(Graph graph, List<PartitionResult.PartitionInfo> partitions, int plannedCuts,
+                             int marginPercent, String filePath) throws IOException {
+        int n = graph.getNumVertices();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write("# wierzcholki;ciecia;zaplanowane_ciecia;margines\n");
+            writer.write(n + ";" + partitions.size() + ";" + plannedCuts + ";" + marginPercent + "\n");
+
+            writer.write("# ciecie;skladowe;zbalansowany;krawedzie_ciecia;przed_refinementem;"
+                    + "skladowa;rozmiar;nowa_skladowa;rozmiar;czas_us\n");
+            for (PartitionResult.PartitionInfo info : partitions) {
+                writer.write(info.getCutNumber() + ";" + info.getNumComponents() + ";" + (info.isBalanced() ? 1 : 0)
+                        + ";" + info.getCutEdges() + ";" + info.getCutEdgesBefore()
+                        + ";" + info.getSplitComponent() + ";" + info.getSplitSize()
+                        + ";" + info.getNewComponent() + ";" + info.getNewSize()
+                        + ";" + info.getElapsedNanos() / 1000 + "\n");
+            }
+
+            writer.write("# skladowa kazdego wierzcholka\n");
+            int[] labels = finalLabels(graph, partitions);
+            StringBuilder line = new StringBuilder();
+            for (int v = 0; v < n; v++) {
+                if (v > 0) line.append(';');
+                line.append(labels[v]);
+                if (line.length() >= BUFFER_SIZE) {
+                    writer.append(line);
+                    line.setLength(0);
+                }
+            }
+            writer.append(line).append('\n');
+        }
+    }
+
+    // Etykiety z ostatniego cięcia; bez cięć - składowe spójności grafu
+    private static int[] finalLabels(Graph graph, List<PartitionResult.PartitionInfo> partitions) {
+        if (partitions.isEmpty()) {
+            return graph.getComponent();
+        }
+        return partitions.get(partitions.size() - 1).getComponentLabels();
+    }
+}
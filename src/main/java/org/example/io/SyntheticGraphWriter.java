@@ -0,0 +1,320 @@
+package org.example.io;
+
+import org.example.generator.SyntheticGraph;
+import org.example.model.GraphException;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Zapis wygenerowanego grafu w formatach .csrrg i .bin czytanych przez GraphLoaderCsrrg i GraphLoaderBin.
+ * Wiersze są zapisywane strumieniowo w miarę generowania; w pamięci trzymane są tylko offsety wierszy.
+ *
+ * Każda krawędź występuje w pliku raz (loadery symetryzują sąsiedztwo), dzięki czemu do limitu 2 GB
+ * pliku .bin mieści się około 500 mln krawędzi. Układ wierszy (col_index/row_ptr) to kolejne wierzchołki
+ * w wierszach o szerokości getRowWidth().
+ */
+public class SyntheticGraphWriter {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Format wybierany po rozszerzeniu pliku (.bin, w przeciwnym razie .csrrg)
+    public static void write(SyntheticGraph graph, String filePath) throws IOException {
+        if (filePath.toLowerCase().endsWith(".bin")) {
+            writeBin(graph, filePath);
+        } else {
+            writeCsrrg(graph, filePath);
+        }
+    }
+
+    // ====================== CSRRG ======================
+
+    /**
+     * max_vertices; col_index; row_ptr; group_list (wierzchołek i jego sąsiedzi z wiersza,
+     * wierzchołki bez sąsiadów w wierszu są pomijane); group_ptr (początki grup w group_list).
+     * GraphLoaderCsrrg wyznacza liczbę wierzchołków z krawędzi, więc izolowane wierzchołki o największych
+     * numerach nie zostaną wczytane - format .bin je zachowuje.
+     */
+    public static void writeCsrrg(SyntheticGraph graph, String filePath) throws IOException {
+        int n = graph.getNumVertices();
+        int width = graph.getRowWidth();
+
+        try (IntTextWriter out = new IntTextWriter(new FileOutputStream(filePath))) {
+            out.write(width);
+            out.endLine();
+            writeLayout(out, n, width);
+
+            int[] groupStarts = new int[n];
+            int[] groupCount = {0};
+            long[] listLength = {0};
+            IOException[] failure = {null};
+            graph.generate((vertex, neighbors, count) -> {
+                if (count == 0 || failure[0] != null) return;
+                if (listLength[0] + count + 1 > Integer.MAX_VALUE) {
+                    throw new GraphException("Błąd: Graf " + graph.getSpec() + " jest zbyt duży dla formatu .csrrg");
+                }
+                try {
+                    groupStarts[groupCount[0]++] = (int) listLength[0];
+                    out.separated(listLength[0] > 0, vertex);
+                    for (int i = 0; i < count; i++) {
+                        out.separated(true, neighbors[i]);
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+                listLength[0] += count + 1;
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.endLine();
+
+            for (int g = 0; g < groupCount[0]; g++) {
+                out.separated(g > 0, groupStarts[g]);
+            }
+            out.endLine();
+        }
+    }
+
+    private static void writeLayout(IntTextWriter out, int n, int width) throws IOException {
+        for (int v = 0; v < n; v++) {
+            out.separated(v > 0, v % width);
+        }
+        out.endLine();
+        int rows = (n + width - 1) / width;
+        for (int r = 0; r <= rows; r++) {
+            out.separated(r > 0, Math.min(n, r * width));
+        }
+        out.endLine();
+    }
+
+    // Liczby dziesiętne zapisywane bezpośrednio do bufora bajtów, bez tworzenia napisów
+    private static class IntTextWriter implements AutoCloseable {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int size;
+
+        IntTextWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void separated(boolean separator, int value) throws IOException {
+            if (separator) {
+                put((byte) ';');
+            }
+            write(value);
+        }
+
+        void write(int value) throws IOException {
+            if (size + 12 > buffer.length) {
+                flush();
+            }
+            long v = value;
+            if (v < 0) {
+                buffer[size++] = '-';
+                v = -v;
+            }
+            int end = size + digits(v);
+            for (int i = end - 1; i >= size; i--) {
+                buffer[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            size = end;
+        }
+
+        void endLine() throws IOException {
+            put((byte) '\n');
+        }
+
+        private void put(byte b) throws IOException {
+            if (size == buffer.length) {
+                flush();
+            }
+            buffer[size++] = b;
+        }
+
+        private static int digits(long v) {
+            int d = 1;
+            while (v >= 10) {
+                v /= 10;
+                d++;
+            }
+            return d;
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer, 0, size);
+            size = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            out.close();
+        }
+    }
+
+    // ====================== BIN ======================
+
+    /**
+     * Układ jak w GraphLoaderBin (little-endian int32): maxVerticesInRow, vertices_by_rows, row_indexes,
+     * liczba podgrafów, a dla każdej części z getPartSizes(): liczba wierzchołków, liczba krawędzi,
+     * adj (numeracja lokalna w podgrafie), adjIndex. Długości adj są uzupełniane po zapisaniu wierszy.
+     */
+    public static void writeBin(SyntheticGraph graph, String filePath) throws IOException {
+        int n = graph.getNumVertices();
+        int width = graph.getRowWidth();
+        int[] partSizes = graph.getPartSizes();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             IntChannelWriter out = new IntChannelWriter(channel)) {
+            out.write(width);
+            out.write(n);
+            for (int v = 0; v < n; v++) {
+                out.write(v % width);
+            }
+            int rows = (n + width - 1) / width;
+            out.write(rows + 1);
+            for (int r = 0; r <= rows; r++) {
+                out.write(Math.min(n, r * width));
+            }
+            out.write(partSizes.length);
+
+            BinPartWriter parts = new BinPartWriter(out, partSizes, graph.getSpec());
+            graph.generate(parts);
+            parts.finish();
+        }
+    }
+
+    // Dzieli strumień wierszy na podgrafy i zapisuje każdy z nich po kolei
+    private static class BinPartWriter implements SyntheticGraph.RowSink {
+        private final IntChannelWriter out;
+        private final int[] partSizes;
+        private final String spec;
+        private int part = -1;
+        private int partStart;
+        private int partEnd;
+        private int[] adjIndex = new int[1];
+        private long adjLength;
+        private long headerPosition;
+        private IOException failure;
+
+        BinPartWriter(IntChannelWriter out, int[] partSizes, String spec) {
+            this.out = out;
+            this.partSizes = partSizes;
+            this.spec = spec;
+        }
+
+        @Override
+        public void row(int vertex, int[] neighbors, int count) {
+            if (failure != null) return;
+            try {
+                while (vertex >= partEnd) {
+                    nextPart();
+                }
+                adjIndex[vertex - partStart] = (int) adjLength;
+                for (int i = 0; i < count; i++) {
+                    int u = neighbors[i] - partStart;
+                    if (u < 0 || u >= partEnd - partStart) {
+                        throw new GraphException("Błąd: Krawędź " + vertex + "-" + neighbors[i]
+                                + " łączy różne części grafu " + spec);
+                    }
+                    out.write(u);
+                }
+                adjLength += count;
+                if (adjLength > Integer.MAX_VALUE - 8) {
+                    throw new GraphException("Błąd: Podgraf " + part + " grafu " + spec + " jest zbyt duży dla formatu .bin");
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        void finish() throws IOException {
+            if (failure != null) throw failure;
+            while (part < partSizes.length) {
+                nextPart();
+            }
+            if (failure != null) throw failure;
+        }
+
+        private void nextPart() throws IOException {
+            if (part >= 0) {
+                int vertexCount = partEnd - partStart;
+                adjIndex[vertexCount] = (int) adjLength;
+                out.patch(headerPosition, vertexCount, (int) adjLength, (int) adjLength);
+                out.write(vertexCount + 1);
+                for (int i = 0; i <= vertexCount; i++) {
+                    out.write(adjIndex[i]);
+                }
+            }
+            part++;
+            if (part == partSizes.length) return;
+
+            partStart = partEnd;
+            partEnd = partStart + partSizes[part];
+            if (adjIndex.length < partSizes[part] + 1) {
+                adjIndex = new int[partSizes[part] + 1];
+            }
+            adjLength = 0;
+            // vertexCount, edgeCount, adjLen - uzupełniane w patch po zapisaniu wierszy
+            headerPosition = out.position();
+            out.write(0);
+            out.write(0);
+            out.write(0);
+        }
+    }
+
+    private static class IntChannelWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushed;
+
+        IntChannelWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        // Nadpisuje wcześniej zapisane inty (także te, które są jeszcze w buforze)
+        void patch(long position, int... values) throws IOException {
+            flush();
+            ByteBuffer small = ByteBuffer.allocate(4 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+            for (int value : values) {
+                small.putInt(value);
+            }
+            small.flip();
+            while (small.hasRemaining()) {
+                channel.write(small, position + small.position());
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer, flushed);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
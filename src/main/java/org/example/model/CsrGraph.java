@@ -0,0 +1,285 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Lista sąsiedztwa w formacie CSR (compressed sparse row).
+ * Sąsiedzi wierzchołka v zajmują w tablicy targets przedział [offsets[v], ends[v]). W grafie zwartym
+ * ends[v] == offsets[v + 1]; takie są wszystkie grafy poza kopią roboczą z mutableCopy().
+ *
+ * Graf jest niemutowalny, z wyjątkiem kopii roboczej, z której removeEdges usuwa krawędzie w miejscu:
+ * wiersz jest ścieśniany, a ends[v] przesuwane, więc koszt zależy tylko od przepisanych wierszy.
+ * Kopii roboczej nie wolno współdzielić (zob. Graph), a compact() zamienia ją z powrotem na graf zwarty.
+ * Tablic zwracanych przez getOffsets()/getEnds()/getTargets() nie wolno modyfikować.
+ */
+public final class CsrGraph {
+    private static final int[] EMPTY = new int[0];
+
+    private final int numVertices;
+    private final int[] offsets;
+    private final int[] ends;
+    private final int[] targets;
+    private final boolean mutable;
+    private int numEntries;
+
+    public CsrGraph(int[] offsets, int[] targets) {
+        if (offsets == null || offsets.length == 0) {
+            throw new GraphException("Błąd: Tablica offsetów CSR nie może być pusta");
+        }
+        if (offsets[offsets.length - 1] > targets.length) {
+            throw new GraphException("Błąd: Niespójne dane CSR (offset " + offsets[offsets.length - 1]
+                    + " > liczba sąsiadów " + targets.length + ")");
+        }
+        this.numVertices = offsets.length - 1;
+        this.offsets = offsets;
+        this.ends = Arrays.copyOfRange(offsets, 1, offsets.length);
+        this.targets = targets;
+        this.mutable = false;
+        this.numEntries = offsets[numVertices];
+    }
+
+    private CsrGraph(int[] offsets, int[] ends, int[] targets, int numEntries) {
+        this.numVertices = offsets.length - 1;
+        this.offsets = offsets;
+        this.ends = ends;
+        this.targets = targets;
+        this.mutable = true;
+        this.numEntries = numEntries;
+    }
+
+    public static CsrGraph empty(int numVertices) {
+        return new CsrGraph(new int[numVertices + 1], EMPTY);
+    }
+
+    /**
+     * Buduje symetryczny graf z listy krawędzi (u[i], v[i]).
+     * Pętle własne są pomijane, duplikaty usuwane; kolejność sąsiadów odpowiada
+     * kolejności pierwszego wystąpienia krawędzi na wejściu.
+     */
+    public static CsrGraph fromEdges(int numVertices, int[] from, int[] to, int edgeCount) {
+        int[] offsets = new int[numVertices + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            if (from[i] == to[i]) continue;
+            offsets[from[i] + 1]++;
+            offsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // Stabilne rozłożenie krawędzi do wierszy (counting sort po wierzchołku źródłowym)
+        int[] targets = new int[offsets[numVertices]];
+        int[] fill = Arrays.copyOf(offsets, numVertices);
+        for (int i = 0; i < edgeCount; i++) {
+            int u = from[i];
+            int v = to[i];
+            if (u == v) continue;
+            targets[fill[u]++] = v;
+            targets[fill[v]++] = u;
+        }
+
+        return deduplicate(numVertices, offsets, targets);
+    }
+
+    /**
+     * Buduje symetryczny graf z danych CSR, w których krawędź może być zapisana tylko w jednym wierszu.
+     * Wynik jest taki sam jak fromEdges dla krawędzi (v, columns[i]) w kolejności wierszy,
+     * ale bez tablicy wierzchołków źródłowych.
+     */
+    public static CsrGraph fromRows(int numVertices, int[] rowOffsets, int[] columns) {
+        int[] offsets = new int[numVertices + 1];
+        for (int v = 0; v < numVertices; v++) {
+            for (int i = rowOffsets[v]; i < rowOffsets[v + 1]; i++) {
+                int w = columns[i];
+                if (w < 0 || w >= numVertices) {
+                    throw new GraphException("Błąd: Sąsiad " + w + " wierzchołka " + v + " spoza zakresu 0.." + (numVertices - 1));
+                }
+                if (w == v) continue;
+                offsets[v + 1]++;
+                offsets[w + 1]++;
+            }
+        }
+        for (int v = 0; v < numVertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] targets = new int[offsets[numVertices]];
+        int[] fill = Arrays.copyOf(offsets, numVertices);
+        for (int v = 0; v < numVertices; v++) {
+            for (int i = rowOffsets[v]; i < rowOffsets[v + 1]; i++) {
+                int w = columns[i];
+                if (w == v) continue;
+                targets[fill[v]++] = w;
+                targets[fill[w]++] = v;
+            }
+        }
+
+        return deduplicate(numVertices, offsets, targets);
+    }
+
+    // Usuwa powtórzone wpisy w każdym wierszu, zachowując pierwsze wystąpienie
+    private static CsrGraph deduplicate(int numVertices, int[] offsets, int[] targets) {
+        int[] lastSeenIn = new int[numVertices];
+        Arrays.fill(lastSeenIn, -1);
+
+        int write = 0;
+        int rowStart = 0;
+        for (int v = 0; v < numVertices; v++) {
+            int rowEnd = offsets[v + 1];
+            offsets[v] = write;
+            for (int i = rowStart; i < rowEnd; i++) {
+                int w = targets[i];
+                if (lastSeenIn[w] != v) {
+                    lastSeenIn[w] = v;
+                    targets[write++] = w;
+                }
+            }
+            rowStart = rowEnd;
+        }
+        offsets[numVertices] = write;
+
+        return new CsrGraph(offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+    }
+
+    /**
+     * Zwraca nowy graf zawierający tylko krawędzie, dla których filtr zwraca true.
+     * Filtr jest wywoływany dla obu kierunków krawędzi, więc powinien być symetryczny.
+     */
+    public CsrGraph filterEdges(EdgeFilter filter) {
+        int[] newOffsets = new int[numVertices + 1];
+        int[] newTargets = new int[numEntries];
+        int write = 0;
+
+        for (int v = 0; v < numVertices; v++) {
+            newOffsets[v] = write;
+            for (int i = offsets[v]; i < ends[v]; i++) {
+                int w = targets[i];
+                if (filter.keep(v, w)) {
+                    newTargets[write++] = w;
+                }
+            }
+        }
+        newOffsets[numVertices] = write;
+
+        if (write == numEntries && !mutable) {
+            return this;
+        }
+        return new CsrGraph(newOffsets, write == newTargets.length ? newTargets : Arrays.copyOf(newTargets, write));
+    }
+
+    /**
+     * Kopia robocza (mutowalna) tego grafu: ta sama zawartość we własnych tablicach.
+     */
+    public CsrGraph mutableCopy() {
+        return new CsrGraph(Arrays.copyOf(offsets, offsets.length), Arrays.copyOf(ends, ends.length),
+                Arrays.copyOf(targets, targets.length), numEntries);
+    }
+
+    // Graf zwarty o tej samej zawartości (ten sam obiekt, jeśli już jest zwarty)
+    public CsrGraph compact() {
+        return mutable ? filterEdges((u, v) -> true) : this;
+    }
+
+    public boolean isMutable() {
+        return mutable;
+    }
+
+    /**
+     * Usuwa w miejscu krawędzie, dla których filtr zwraca false, sprawdzając tylko wiersze rows[0..rowCount).
+     * Filtr musi być symetryczny w obrębie podanych wierszy, a krawędzie do wierzchołków spoza nich
+     * muszą zostać zachowane. Koszt jest proporcjonalny do długości tych wierszy. Zwraca liczbę
+     * usuniętych wpisów (każda krawędź liczona dwukrotnie). Tylko dla kopii roboczej (mutableCopy()).
+     */
+    public int removeEdges(int[] rows, int rowCount, EdgeFilter filter) {
+        if (!mutable) {
+            throw new IllegalStateException("Krawędzie można usuwać tylko z kopii roboczej grafu");
+        }
+        int removed = 0;
+        for (int k = 0; k < rowCount; k++) {
+            int v = rows[k];
+            int write = offsets[v];
+            for (int i = offsets[v]; i < ends[v]; i++) {
+                int w = targets[i];
+                if (filter.keep(v, w)) {
+                    targets[write++] = w;
+                }
+            }
+            removed += ends[v] - write;
+            ends[v] = write;
+        }
+        numEntries -= removed;
+        return removed;
+    }
+
+    /**
+     * Podgraf indukowany przez wierzchołki vertices[0..count) (rosnąco), z numeracją lokalną:
+     * wierzchołek vertices[i] dostaje numer i. Krawędzie do wierzchołków spoza listy są pomijane.
+     */
+    public CsrGraph induced(int[] vertices, int count) {
+        int[] newOffsets = new int[count + 1];
+        int capacity = 0;
+        for (int i = 0; i < count; i++) {
+            capacity += ends[vertices[i]] - offsets[vertices[i]];
+        }
+        int[] newTargets = new int[capacity];
+        int write = 0;
+
+        for (int i = 0; i < count; i++) {
+            int v = vertices[i];
+            newOffsets[i] = write;
+            for (int k = offsets[v]; k < ends[v]; k++) {
+                int local = Arrays.binarySearch(vertices, 0, count, targets[k]);
+                if (local >= 0) {
+                    newTargets[write++] = local;
+                }
+            }
+        }
+        newOffsets[count] = write;
+
+        return new CsrGraph(newOffsets, write == newTargets.length ? newTargets : Arrays.copyOf(newTargets, write));
+    }
+
+    @FunctionalInterface
+    public interface EdgeFilter {
+        boolean keep(int u, int v);
+    }
+
+    public int getNumVertices() { return numVertices; }
+
+    // Liczba wpisów w tablicy sąsiadów (każda krawędź nieskierowana liczona dwukrotnie)
+    public int getNumEntries() { return numEntries; }
+
+    public int degree(int v) {
+        return ends[v] - offsets[v];
+    }
+
+    public int neighbor(int v, int index) {
+        return targets[offsets[v] + index];
+    }
+
+    public void forEachNeighbor(int v, IntConsumer action) {
+        for (int i = offsets[v]; i < ends[v]; i++) {
+            action.accept(targets[i]);
+        }
+    }
+
+    public int[] neighborsOf(int v) {
+        return Arrays.copyOfRange(targets, offsets[v], ends[v]);
+    }
+
+    public String neighborsToString(int v) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = offsets[v]; i < ends[v]; i++) {
+            if (i > offsets[v]) sb.append(", ");
+            sb.append(targets[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    // Początki wierszy (numVertices + 1 elementów)
+    public int[] getOffsets() { return offsets; }
+    // Końce wierszy (wyłącznie), numVertices elementów
+    public int[] getEnds() { return ends; }
+    public int[] getTargets() { return targets; }
+}
@@ -1,41 +1,51 @@
 package org.example.model;
-import java.awt.geom.Point2D;
 import java.util.*;
 
 public class Graph {
+    private static final int DEFAULT_CAPACITY = 1024;
+
     private int maxVertices;
     private int numVertices;
     private int numComponents;
 
-    // Dynamic adjacency lists
-    private List<Integer>[] neighbors;
-    private int[] neighborCount;
+    // Canonical adjacency: an immutable CSR replaced as a whole, or during partitioning a private
+    // working copy (CsrGraph.mutableCopy) from which removeEdges deletes cut edges in place
+    private CsrGraph adjacency;
+
+    // Edges added through addEdge, folded into the CSR adjacency on first read (null if there are none)
+    private GraphBuilder pendingEdges;
 
     // Additional data arrays
     private int[] maxDistances;
     private int[] groupAssignment;
     private int[] component;
 
+    // Vertices of each connected component in ascending order (first componentSizes[c] entries are valid),
+    // rebuilt by setComponents and updated incrementally by splitComponent
+    private int[][] componentMembers;
+    private int[] componentSizes;
+
+    // Cut edges of the last split: before refinement and actually removed
+    private int lastCutBefore;
+    private int lastCutAfter;
+    private int lastSplitComponent = -1;
+
     // CSR representation
     private int[] colIndex;
     private int[] rowPtr;
     private int[] groupList;
     private int[] groupPtr;
-    private Map<Integer, Point2D> vertexPositions;
+    // Shared by reference with the panels (null until a layout is assigned)
+    private VertexPositions vertexPositions;
 
-    @SuppressWarnings("unchecked")
     public Graph() {
-        initGraph(40000); // Default capacity for large graphs
-        vertexPositions = new HashMap<>();
-
+        initGraph(DEFAULT_CAPACITY);
     }
 
-    @SuppressWarnings("unchecked")
     public Graph(int initialCapacity) {
         initGraph(initialCapacity);
     }
 
-    @SuppressWarnings("unchecked")
     public Graph(int initialCapacity, boolean exactSize) {
         if (exactSize) {
             initGraph(initialCapacity);
@@ -46,42 +56,35 @@ public class Graph {
     }
 
 
-    public Map<Integer, Point2D> getAllVertexPositions() {
-        return new HashMap<>(vertexPositions);
+    public VertexPositions getVertexPositions() {
+        return vertexPositions;
     }
 
-    public void setAllVertexPositions(Map<Integer, Point2D> positions) {
-        vertexPositions = new HashMap<>(positions);
+    public void setVertexPositions(VertexPositions positions) {
+        vertexPositions = positions;
     }
 
-    @SuppressWarnings("unchecked")
     public Graph(Graph other) {
         // Copy basic properties
         this.maxVertices = other.maxVertices;
         this.numVertices = other.numVertices;
         this.numComponents = other.numComponents;
 
-        // Initialize arrays with the same capacity as the source
-        this.neighbors = new List[other.maxVertices];
-        this.neighborCount = new int[other.maxVertices];
-        this.maxDistances = new int[other.maxVertices];
-        this.groupAssignment = new int[other.maxVertices];
-        this.component = new int[other.maxVertices];
-
-        // Deep copy of neighbors lists
-        for (int i = 0; i < other.maxVertices; i++) {
-            if (other.neighbors[i] != null) {
-                this.neighbors[i] = new ArrayList<>(other.neighbors[i]);
-            } else {
-                this.neighbors[i] = new ArrayList<>();
-            }
-            this.neighborCount[i] = other.neighborCount[i];
+        // An immutable adjacency can be shared, a working copy must not be
+        this.adjacency = other.getAdjacency().compact();
+        this.pendingEdges = null;
+
+        // Copy component lists
+        this.componentSizes = Arrays.copyOf(other.componentSizes, other.componentSizes.length);
+        this.componentMembers = new int[other.componentMembers.length][];
+        for (int c = 0; c < other.numComponents; c++) {
+            this.componentMembers[c] = Arrays.copyOf(other.componentMembers[c], other.componentSizes[c]);
         }
 
         // Copy arrays
-        System.arraycopy(other.maxDistances, 0, this.maxDistances, 0, other.maxVertices);
-        System.arraycopy(other.groupAssignment, 0, this.groupAssignment, 0, other.maxVertices);
-        System.arraycopy(other.component, 0, this.component, 0, other.maxVertices);
+        this.maxDistances = Arrays.copyOf(other.maxDistances, other.maxVertices);
+        this.groupAssignment = Arrays.copyOf(other.groupAssignment, other.maxVertices);
+        this.component = Arrays.copyOf(other.component, other.maxVertices);
 
         // Copy CSR representation if exists
         if (other.colIndex != null) {
@@ -98,7 +101,6 @@ public class Graph {
         }
     }
 
-    @SuppressWarnings("unchecked")
     public void initGraph(int initialCapacity) {
         this.maxVertices = initialCapacity;
         this.numVertices = 0;
@@ -110,22 +112,18 @@ public class Graph {
         this.groupList = null;
         this.groupPtr = null;
 
-        // Allocate dynamic neighbor arrays
-        this.neighbors = new List[initialCapacity];
-        this.neighborCount = new int[initialCapacity];
+        this.adjacency = CsrGraph.empty(0);
+        this.pendingEdges = null;
+
+        this.componentMembers = new int[0][];
+        this.componentSizes = new int[0];
 
         // Allocate additional dynamic arrays
         this.maxDistances = new int[initialCapacity];
         this.groupAssignment = new int[initialCapacity];
         this.component = new int[initialCapacity];
-
-        // Initialize neighbor lists as empty
-        for (int i = 0; i < initialCapacity; i++) {
-            this.neighbors[i] = new ArrayList<>();
-        }
     }
 
-    @SuppressWarnings("unchecked")
     private void ensureCapacity(int requiredCapacity) {
         if (requiredCapacity <= maxVertices) {
             return;
@@ -145,16 +143,7 @@ public class Graph {
             newCapacity = Math.max(maxVertices * 2, requiredCapacity + 1000);
         }
 
-        // Resize neighbors array
-        List<Integer>[] newNeighbors = new List[newCapacity];
-        System.arraycopy(neighbors, 0, newNeighbors, 0, maxVertices);
-        for (int i = maxVertices; i < newCapacity; i++) {
-            newNeighbors[i] = new ArrayList<>();
-        }
-        neighbors = newNeighbors;
-
-        // Resize other arrays
-        neighborCount = Arrays.copyOf(neighborCount, newCapacity);
+        // Resize per-vertex arrays
         maxDistances = Arrays.copyOf(maxDistances, newCapacity);
         groupAssignment = Arrays.copyOf(groupAssignment, newCapacity);
         component = Arrays.copyOf(component, newCapacity);
@@ -171,17 +160,16 @@ public class Graph {
         int requiredCapacity = Math.max(u, v) + 1;
         ensureCapacity(requiredCapacity);
 
-        // Add v to u's neighbors if not already present
-        if (!neighbors[u].contains(v)) {
-            neighbors[u].add(v);
-            neighborCount[u]++;
-        }
-
-        // Add u to v's neighbors if not already present
-        if (!neighbors[v].contains(u)) {
-            neighbors[v].add(u);
-            neighborCount[v]++;
+        // Already materialized edges have to be rebuilt together with the new ones
+        if (pendingEdges == null) {
+            pendingEdges = new GraphBuilder(numVertices);
+            if (adjacency.getNumEntries() > 0) {
+                CsrGraph compact = adjacency.compact();
+                pendingEdges.addRows(compact.getOffsets(), compact.getTargets());
+            }
+            adjacency = CsrGraph.empty(0);
         }
+        pendingEdges.addEdge(u, v);
 
         // Update number of vertices
         if (u + 1 > numVertices) numVertices = u + 1;
@@ -189,10 +177,8 @@ public class Graph {
     }
 
     public void clearNeighbors() {
-        for (int i = 0; i < maxVertices; i++) {
-            neighbors[i].clear();
-            neighborCount[i] = 0;
-        }
+        adjacency = CsrGraph.empty(numVertices);
+        pendingEdges = null;
         Arrays.fill(groupAssignment, 0, maxVertices, 0);
     }
 
@@ -219,17 +205,118 @@ public class Graph {
         this.groupPtr = groupPtr;
     }
 
+    // Returns the adjacency of all getNumVertices() vertices, building it from pending edges if needed
+    public CsrGraph getAdjacency() {
+        if (pendingEdges != null) {
+            adjacency = pendingEdges.build();
+            pendingEdges = null;
+            numVertices = Math.max(numVertices, adjacency.getNumVertices());
+        }
+        if (adjacency.getNumVertices() < numVertices) {
+            // Vertices without any edges (e.g. declared through setCSRData)
+            CsrGraph compact = adjacency.compact();
+            int[] offsets = Arrays.copyOf(compact.getOffsets(), numVertices + 1);
+            Arrays.fill(offsets, compact.getNumVertices() + 1, numVertices + 1, compact.getNumEntries());
+            adjacency = new CsrGraph(offsets, compact.getTargets());
+        }
+        return adjacency;
+    }
+
+    public void setAdjacency(CsrGraph adjacency) {
+        ensureCapacity(adjacency.getNumVertices());
+        this.adjacency = adjacency;
+        this.numVertices = adjacency.getNumVertices();
+        this.pendingEdges = null;
+    }
+
+    /**
+     * Removes, in place, the edges of rows[0..rowCount) rejected by filter (see CsrGraph.removeEdges) and
+     * returns the number of removed entries. Unless makeAdjacencyMutable was called, the first call replaces
+     * the adjacency with a private working copy; later calls only touch the given rows.
+     */
+    public int removeEdges(int[] rows, int rowCount, CsrGraph.EdgeFilter filter) {
+        makeAdjacencyMutable();
+        return adjacency.removeEdges(rows, rowCount, filter);
+    }
+
+    // Replaces the adjacency with a private working copy unless it already is one
+    public void makeAdjacencyMutable() {
+        CsrGraph current = getAdjacency();
+        if (!current.isMutable()) {
+            adjacency = current.mutableCopy();
+        }
+    }
+
+    // Turns a working copy left by removeEdges back into an immutable, gap-free adjacency
+    public void compactAdjacency() {
+        adjacency = getAdjacency().compact();
+    }
 
 
-    @SuppressWarnings("unchecked")
-    public List<Integer>[] copyNeighbors() {
-        List<Integer>[] copy = new List[getNumVertices()];
-        for (int i = 0; i < getNumVertices(); i++) {
-            copy[i] = new ArrayList<>(neighbors[i]);
+    // ====================== CONNECTED COMPONENTS ======================
+
+    // Rebuilds the per-component vertex lists from the component[] labels
+    public void setComponents(int numComponents) {
+        this.numComponents = numComponents;
+        this.componentSizes = new int[Math.max(numComponents, 4)];
+        for (int v = 0; v < numVertices; v++) {
+            componentSizes[component[v]]++;
+        }
+
+        this.componentMembers = new int[componentSizes.length][];
+        for (int c = 0; c < numComponents; c++) {
+            componentMembers[c] = new int[componentSizes[c]];
+            componentSizes[c] = 0;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            int c = component[v];
+            componentMembers[c][componentSizes[c]++] = v;
         }
-        return copy;
     }
 
+    /**
+     * Moves the vertices of component comp whose groupAssignment equals movedGroup into a new component
+     * and returns its id. Only the members of comp are visited.
+     */
+    public int splitComponent(int comp, int movedGroup) {
+        lastSplitComponent = comp;
+        int newComp = numComponents;
+        if (newComp == componentSizes.length) {
+            componentSizes = Arrays.copyOf(componentSizes, newComp * 2);
+            componentMembers = Arrays.copyOf(componentMembers, newComp * 2);
+        }
+
+        int[] members = componentMembers[comp];
+        int size = componentSizes[comp];
+        int[] moved = new int[size];
+        int movedCount = 0;
+        int kept = 0;
+
+        for (int i = 0; i < size; i++) {
+            int v = members[i];
+            if (groupAssignment[v] == movedGroup) {
+                component[v] = newComp;
+                moved[movedCount++] = v;
+            } else {
+                members[kept++] = v;
+            }
+        }
+
+        componentSizes[comp] = kept;
+        componentMembers[newComp] = Arrays.copyOf(moved, movedCount);
+        componentSizes[newComp] = movedCount;
+        numComponents++;
+        return newComp;
+    }
+
+    public int getComponentSize(int comp) {
+        return componentSizes[comp];
+    }
+
+    // Internal array, valid up to getComponentSize(comp); must not be modified
+    public int[] getComponentVertices(int comp) {
+        return componentMembers[comp];
+    }
 
     // Getters and setters
     public void setMaxVertices(int maxVertices) {
@@ -242,8 +329,16 @@ public class Graph {
     public int getNumComponents() { return numComponents; }
     public void setNumComponents(int numComponents) { this.numComponents = numComponents; }
 
-    public List<Integer>[] getNeighbors() { return neighbors; }
-    public int[] getNeighborCount() { return neighborCount; }
+    public void setLastCut(int before, int after) {
+        this.lastCutBefore = before;
+        this.lastCutAfter = after;
+    }
+    public int getLastCutBefore() { return lastCutBefore; }
+    public int getLastCutAfter() { return lastCutAfter; }
+    // Component divided by the last splitComponent call (the new part is the last component)
+    public int getLastSplitComponent() { return lastSplitComponent; }
+
+    public int getDegree(int v) { return getAdjacency().degree(v); }
     public int[] getMaxDistances() { return maxDistances; }
     public int[] getGroupAssignment() { return groupAssignment; }
     public int[] getComponent() { return component; }
@@ -0,0 +1,173 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Hurtowe budowanie nieskierowanego grafu CSR z list krawędzi albo danych CSR.
+ * Krawędzie są symetryzowane, pętle własne pomijane, a duplikaty usuwane w jednym przejściu
+ * (sortowanie przez zliczanie po wierzchołku + znaczniki), bez sprawdzania każdej krawędzi osobno.
+ *
+ * Domyślnie sąsiedzi zachowują kolejność pierwszego wystąpienia na wejściu (tak jak Graph.addEdge).
+ * Po sortedNeighbors() listy sąsiadów są rosnące, a krawędzie sortowane równolegle (Arrays.parallelSort).
+ */
+public final class GraphBuilder {
+    private int numVertices;
+
+    // Krawędzie dodane pojedynczo lub tablicami
+    private int[] from = new int[0];
+    private int[] to = new int[0];
+    private int edgeCount;
+
+    // Dane CSR przekazane przez addRows (bez kopiowania, dopóki są jedynym wejściem)
+    private int[] rowOffsets;
+    private int[] columns;
+    private int rowCount;
+
+    private boolean sortedNeighbors;
+
+    public GraphBuilder(int numVertices) {
+        if (numVertices < 0) {
+            throw new GraphException("Błąd: Liczba wierzchołków nie może być ujemna: " + numVertices);
+        }
+        this.numVertices = numVertices;
+    }
+
+    public GraphBuilder sortedNeighbors() {
+        this.sortedNeighbors = true;
+        return this;
+    }
+
+    public GraphBuilder addEdge(int u, int v) {
+        flushRows();
+        checkVertex(u, v);
+        ensureEdgeCapacity(edgeCount + 1);
+        from[edgeCount] = u;
+        to[edgeCount] = v;
+        edgeCount++;
+        return this;
+    }
+
+    // Dodaje krawędzie (from[i], to[i]) dla i < count
+    public GraphBuilder addEdges(int[] from, int[] to, int count) {
+        flushRows();
+        ensureEdgeCapacity(edgeCount + count);
+        for (int i = 0; i < count; i++) {
+            checkVertex(from[i], to[i]);
+        }
+        System.arraycopy(from, 0, this.from, edgeCount, count);
+        System.arraycopy(to, 0, this.to, edgeCount, count);
+        edgeCount += count;
+        return this;
+    }
+
+    /**
+     * Dodaje krawędzie (v, columns[i]) dla i w [rowOffsets[v], rowOffsets[v + 1]).
+     * Krawędź może występować w jednym lub obu wierszach. Tablice nie są kopiowane, jeśli to jedyne wejście,
+     * więc nie wolno ich zmieniać przed build().
+     */
+    public GraphBuilder addRows(int[] rowOffsets, int[] columns) {
+        int rows = rowOffsets.length - 1;
+        numVertices = Math.max(numVertices, rows);
+        if (this.rowOffsets == null && edgeCount == 0) {
+            this.rowOffsets = rowOffsets;
+            this.columns = columns;
+            this.rowCount = rows;
+            return this;
+        }
+        flushRows();
+        appendRows(rowOffsets, columns, rows);
+        return this;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    // Liczba dodanych krawędzi (przed usunięciem duplikatów)
+    public int getEdgeCount() {
+        return edgeCount + (rowOffsets != null ? rowOffsets[rowCount] - rowOffsets[0] : 0);
+    }
+
+    public CsrGraph build() {
+        if (sortedNeighbors) {
+            return buildSorted();
+        }
+        if (rowOffsets != null && edgeCount == 0 && rowCount == numVertices) {
+            return CsrGraph.fromRows(numVertices, rowOffsets, columns);
+        }
+        flushRows();
+        return CsrGraph.fromEdges(numVertices, from, to, edgeCount);
+    }
+
+    // Każda krawędź w obu kierunkach jako klucz (u << 32 | v); po sortowaniu duplikaty sąsiadują ze sobą
+    private CsrGraph buildSorted() {
+        flushRows();
+        long[] keys = new long[2 * edgeCount];
+        int keyCount = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            int u = from[i];
+            int v = to[i];
+            if (u == v) continue;
+            keys[keyCount++] = ((long) u << 32) | v;
+            keys[keyCount++] = ((long) v << 32) | u;
+        }
+        Arrays.parallelSort(keys, 0, keyCount);
+
+        int[] offsets = new int[numVertices + 1];
+        int[] targets = new int[keyCount];
+        int write = 0;
+        long previous = -1;
+        for (int i = 0; i < keyCount; i++) {
+            long key = keys[i];
+            if (key == previous) continue;
+            previous = key;
+            offsets[(int) (key >>> 32) + 1]++;
+            targets[write++] = (int) key;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        return new CsrGraph(offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+    }
+
+    // Przenosi dane CSR przekazane bez kopiowania do tablic krawędzi
+    private void flushRows() {
+        if (rowOffsets == null) return;
+        int[] offsets = rowOffsets;
+        int[] cols = columns;
+        rowOffsets = null;
+        columns = null;
+        appendRows(offsets, cols, rowCount);
+    }
+
+    private void appendRows(int[] offsets, int[] cols, int rows) {
+        ensureEdgeCapacity(edgeCount + offsets[rows] - offsets[0]);
+        for (int v = 0; v < rows; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                checkVertex(v, cols[i]);
+                from[edgeCount] = v;
+                to[edgeCount] = cols[i];
+                edgeCount++;
+            }
+        }
+    }
+
+    private void checkVertex(int u, int v) {
+        if (u < 0 || v < 0) {
+            throw new GraphException("Błąd: Indeks wierzchołka nie może być ujemny (u=" + u + ", v=" + v + ")");
+        }
+        int required = Math.max(u, v) + 1;
+        if (required > numVertices) {
+            numVertices = required;
+        }
+    }
+
+    private void ensureEdgeCapacity(int required) {
+        if (required > from.length) {
+            int newLength = Math.max(Math.max(16, required), from.length * 2);
+            from = Arrays.copyOf(from, newLength);
+            to = Arrays.copyOf(to, newLength);
+        }
+    }
+}
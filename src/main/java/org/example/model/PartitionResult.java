@@ -1,26 +1,86 @@
 package org.example.model;
 
 import org.example.algorithm.GraphPartitioner;
+import org.example.algorithm.PartitionLog;
+import org.example.algorithm.PartitionLog.Level;
+import org.example.algorithm.PartitionMonitor;
+import org.example.algorithm.PartitionWorkspace;
+import org.example.algorithm.RecursivePartitioner;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 public class PartitionResult {
+    /**
+     * Component labels after every cut of one run: the labels before the first cut plus, for each cut,
+     * the vertices moved to its new component. Label arrays are rebuilt on demand starting from the
+     * last one built; an array once returned is never modified, so callers must not modify it either.
+     */
+    public static final class CutHistory {
+        private final int[] initialLabels;
+        private final List<int[]> moved = new ArrayList<>();
+        private final List<Integer> targets = new ArrayList<>();
+        private int cachedStep = -1;
+        private int[] cachedLabels;
+
+        public CutHistory(int[] initialLabels, int numVertices) {
+            this.initialLabels = Arrays.copyOf(initialLabels, numVertices);
+            this.cachedLabels = this.initialLabels;
+        }
+
+        private synchronized int append(int[] vertices, int component) {
+            moved.add(vertices);
+            targets.add(component);
+            return moved.size() - 1;
+        }
+
+        private synchronized int[] movedAt(int step) {
+            return moved.get(step);
+        }
+
+        // Labels after cuts 0..step were applied (step -1: before any cut)
+        private synchronized int[] labelsAfter(int step) {
+            if (step == cachedStep) {
+                return cachedLabels;
+            }
+            int from = step > cachedStep ? cachedStep : -1;
+            int[] labels = Arrays.copyOf(from == cachedStep ? cachedLabels : initialLabels, initialLabels.length);
+            for (int s = from + 1; s <= step; s++) {
+                int target = targets.get(s);
+                for (int v : moved.get(s)) {
+                    labels[v] = target;
+                }
+            }
+            cachedStep = step;
+            cachedLabels = labels;
+            return labels;
+        }
+    }
+
     public static class PartitionInfo {
         private final int cutNumber;
         private final int numComponents;
         private final int marginPercent;
         private boolean isBalanced;
-
-        private final Map<Integer, List<Integer>> componentVertices;
-
-        public PartitionInfo(int cutNumber, int numComponents, int marginPercent) {
+        private int cutEdgesBefore;
+        private int cutEdges;
+        private int splitComponent;
+        private int splitSize;
+        private final int newComponent;
+        private long elapsedNanos;
+
+        // Components are kept as a diff against the previous cut in the shared history
+        private final CutHistory history;
+        private final int step;
+
+        // moved: vertices that formed newComponent in this cut (kept, not copied)
+        public PartitionInfo(int cutNumber, int numComponents, int marginPercent,
+                             CutHistory history, int[] moved, int newComponent) {
             this.cutNumber = cutNumber;
             this.numComponents = numComponents;
             this.marginPercent = marginPercent;
-            this.componentVertices = new HashMap<>();
-        }
-
-        public void addComponentVertices(int componentId, List<Integer> vertices) {
-            componentVertices.put(componentId, new ArrayList<>(vertices));
+            this.history = history;
+            this.newComponent = newComponent;
+            this.step = history.append(moved, newComponent);
         }
 
         public int getCutNumber() {
@@ -43,54 +103,157 @@ public class PartitionResult {
             isBalanced = balanced;
         }
 
+        // Cut edges before refinement and removed by the cut
+        public void setCutEdges(int before, int after) {
+            this.cutEdgesBefore = before;
+            this.cutEdges = after;
+        }
+
+        public int getCutEdgesBefore() {
+            return cutEdgesBefore;
+        }
+
+        public int getCutEdges() {
+            return cutEdges;
+        }
+
+        // Component split by this cut and its size after the cut
+        public void setSplit(int splitComponent, int splitSize) {
+            this.splitComponent = splitComponent;
+            this.splitSize = splitSize;
+        }
+
+        public int getSplitComponent() {
+            return splitComponent;
+        }
+
+        public int getSplitSize() {
+            return splitSize;
+        }
+
+        public int getNewComponent() {
+            return newComponent;
+        }
+
+        public int getNewSize() {
+            return history.movedAt(step).length;
+        }
+
+        // Vertices moved from the split component to the new one (read-only)
+        public int[] getMovedVertices() {
+            return history.movedAt(step);
+        }
+
+        // Time spent on this cut
+        public void setElapsedNanos(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        // Component of every vertex after this cut (read-only, shared with other callers)
+        public int[] getComponentLabels() {
+            return history.labelsAfter(step);
+        }
+
+        // Component of every vertex before this cut (read-only)
+        public int[] getPreviousLabels() {
+            return history.labelsAfter(step - 1);
+        }
+
+        // Vertex list of every component after this cut, built on demand
         public Map<Integer, List<Integer>> getComponentVertices() {
-            return componentVertices;
+            int[] labels = getComponentLabels();
+            Map<Integer, List<Integer>> components = new HashMap<>();
+            for (int v = 0; v < labels.length; v++) {
+                components.computeIfAbsent(labels[v], k -> new ArrayList<>()).add(v);
+            }
+            return components;
+        }
+    }
+
+    /**
+     * Like performPartitioning(graph, numCuts, marginPercent), reporting progress to monitor.
+     * When the monitor cancels the run, the cuts completed so far are kept and returned
+     * (the interrupted cut leaves the graph unchanged).
+     */
+    public static List<PartitionInfo> performPartitioning(Graph graph, int numCuts, int marginPercent,
+                                                          PartitionMonitor monitor) {
+        PartitionMonitor previous = GraphPartitioner.getMonitor();
+        GraphPartitioner.setMonitor(monitor);
+        try {
+            return performPartitioning(graph, numCuts, marginPercent);
+        } finally {
+            GraphPartitioner.setMonitor(previous);
         }
     }
 
     public static List<PartitionInfo> performPartitioning(Graph graph, int numCuts, int marginPercent) {
         List<PartitionInfo> results = new ArrayList<>();
-        int successfulCuts = 0;
+        long start = System.nanoTime();
+        try {
+            partition(graph, numCuts, marginPercent, results);
+        } catch (CancellationException e) {
+            // The interrupted cut never reached splitGraph, only its group labels have to be cleared
+            Arrays.fill(graph.getGroupAssignment(), 0, graph.getNumVertices(), 0);
+            PartitionLog.logf(Level.ERROR, "✗ Partitioning cancelled after %d cuts", results.size());
+        } finally {
+            // Cięcia usuwały krawędzie z roboczej kopii listy sąsiedztwa, po przebiegu wracamy do zwartej
+            graph.compactAdjacency();
+        }
+        printFinalSummary(results, numCuts, System.nanoTime() - start);
+        return results;
+    }
 
-        System.out.println("=== STARTING GRAPH PARTITIONING ===");
-        System.out.printf("Target cuts: %d, Margin: %d%%\n\n", numCuts, marginPercent);
+    // Appends every completed cut to results as soon as it is made
+    private static void partition(Graph graph, int numCuts, int marginPercent, List<PartitionInfo> results) {
+        int successfulCuts = 0;
 
         // Initial component analysis
         GraphPartitioner.findConnectedComponents(graph);
-        System.out.printf("Initial graph has %d connected components\n", graph.getNumComponents());
+        PartitionLog.logf(Level.SUMMARY, "=== GRAPH PARTITIONING: %d vertices, %d components, target cuts %d, margin %d%% ===",
+                graph.getNumVertices(), graph.getNumComponents(), numCuts, marginPercent);
         printAdjacencyList(graph, "INITIAL GRAPH");
         printComponentAnalysis(graph, 0);
 
+        if (GraphPartitioner.isRecursiveDriver()) {
+            results.addAll(performRecursivePartitioning(graph, numCuts, marginPercent));
+            // Przerwany przebieg zwraca wykonane cięcia, przerwanie zgłaszamy dopiero po ich zapisaniu
+            GraphPartitioner.checkCancelled();
+            return;
+        }
+
+        CutHistory history = new CutHistory(graph.getComponent(), graph.getNumVertices());
+        PartitionWorkspace workspace = new PartitionWorkspace();
         boolean partitionSuccess = true;
 
         while (successfulCuts < numCuts && partitionSuccess) {
-            System.out.printf("\n=== ATTEMPTING CUT %d ===\n", successfulCuts + 1);
-
-            // Store state before partition attempt
-            int componentsBefore = graph.getNumComponents();
+            PartitionLog.logf(Level.DETAIL, "\n=== ATTEMPTING CUT %d ===", successfulCuts + 1);
+            GraphPartitioner.getMonitor().cutStarted(successfulCuts + 1, numCuts);
+            long cutStart = System.nanoTime();
 
             // Attempt partition
-            partitionSuccess = GraphPartitioner.partitionGraph(graph, marginPercent);
+            partitionSuccess = GraphPartitioner.partitionGraph(graph, marginPercent, workspace);
 
             if (partitionSuccess) {
                 successfulCuts++;
 
-                // Update components after partition
-                GraphPartitioner.findConnectedComponents(graph);
+                // Create partition info (components were updated by splitGraph, the new one is the last)
+                int newComponent = graph.getNumComponents() - 1;
+                int[] moved = Arrays.copyOf(graph.getComponentVertices(newComponent), graph.getComponentSize(newComponent));
+                PartitionInfo partitionInfo = new PartitionInfo(successfulCuts, graph.getNumComponents(), marginPercent,
+                        history, moved, newComponent);
 
-                System.out.printf("✓ Cut %d successful! Components: %d -> %d\n",
-                        successfulCuts, componentsBefore, graph.getNumComponents());
-
-                // Create partition info
-                PartitionInfo partitionInfo = new PartitionInfo(successfulCuts, graph.getNumComponents(), marginPercent);
-                
                 // Skoro partitionGraph zwrócił true, to wiemy że podział jest zbalansowany
                 partitionInfo.setBalanced(true);
+                partitionInfo.setCutEdges(graph.getLastCutBefore(), graph.getLastCutAfter());
+                int splitComponent = graph.getLastSplitComponent();
+                partitionInfo.setSplit(splitComponent, graph.getComponentSize(splitComponent));
+                partitionInfo.setElapsedNanos(System.nanoTime() - cutStart);
 
-                // Analyze and store component information
-                analyzeAndStoreComponents(graph, partitionInfo);
-
-                // Print detailed results
+                PartitionLog.cutCompleted(partitionInfo);
                 printAdjacencyList(graph, "AFTER CUT " + successfulCuts);
                 printComponentAnalysis(graph, successfulCuts);
                 printBalanceAnalysis(partitionInfo);
@@ -98,88 +261,71 @@ public class PartitionResult {
                 results.add(partitionInfo);
 
             } else {
-                System.err.printf("✗ Error: Failed to perform cut %d\n", successfulCuts + 1);
-                System.err.println("Reason: No suitable partition found or connectivity constraints not met");
+                PartitionLog.logf(Level.ERROR, "✗ Error: Failed to perform cut %d\n"
+                        + "Reason: No suitable partition found or connectivity constraints not met", successfulCuts + 1);
                 break;
             }
         }
-
-        // Final summary
-        printFinalSummary(results, numCuts);
-
-        return results;
     }
 
-    private static void analyzeAndStoreComponents(Graph graph, PartitionInfo partitionInfo) {
-        int[] component = graph.getComponent();
-        Map<Integer, List<Integer>> componentMap = new HashMap<>();
+    // Cuts made by RecursivePartitioner (independent parts in parallel), reported in the same form
+    private static List<PartitionInfo> performRecursivePartitioning(Graph graph, int numCuts, int marginPercent) {
+        List<PartitionInfo> results = RecursivePartitioner.partition(graph, numCuts, marginPercent);
 
-        // Group vertices by component
-        for (int i = 0; i < graph.getNumVertices(); i++) {
-            int comp = component[i];
-            componentMap.computeIfAbsent(comp, k -> new ArrayList<>()).add(i);
+        for (PartitionInfo partitionInfo : results) {
+            PartitionLog.cutCompleted(partitionInfo);
+            printBalanceAnalysis(partitionInfo);
         }
-
-        // Store component information
-        for (Map.Entry<Integer, List<Integer>> entry : componentMap.entrySet()) {
-            partitionInfo.addComponentVertices(entry.getKey(), entry.getValue());
+        if (results.size() < numCuts && !GraphPartitioner.getMonitor().isCancelled()) {
+            PartitionLog.logf(Level.ERROR, "✗ Error: Failed to perform cut %d\n"
+                    + "Reason: No suitable partition found or connectivity constraints not met", results.size() + 1);
         }
+
+        printAdjacencyList(graph, "AFTER CUT " + results.size());
+        printComponentAnalysis(graph, results.size());
+
+        return results;
     }
 
     private static void printBalanceAnalysis(PartitionInfo partitionInfo) {
-        System.out.printf("--- BALANCE ANALYSIS (Cut %d) ---\n", partitionInfo.getCutNumber());
+        if (!PartitionLog.isEnabled(Level.DETAIL)) return;
+        PartitionLog.logf(Level.DETAIL, "--- BALANCE ANALYSIS (Cut %d) ---", partitionInfo.getCutNumber());
 
-        Map<Integer, List<Integer>> components = partitionInfo.getComponentVertices();
-        
         // Print all component sizes
-        for (Map.Entry<Integer, List<Integer>> entry : components.entrySet()) {
-            System.out.printf("Component %d size: %d\n", entry.getKey(), entry.getValue().size());
-        }
-
-        if (components.size() >= 2) {
-            // Znajdź dwa komponenty o najmniejszej sumie rozmiarów
-            int smallestSum = Integer.MAX_VALUE;
-            int comp1 = -1;
-            int comp2 = -1;
-
-            for (int i : components.keySet()) {
-                for (int j : components.keySet()) {
-                    if (i < j) {  // unikamy porównywania komponentu ze sobą i duplikatów
-                        int sum = components.get(i).size() + components.get(j).size();
-                        if (sum < smallestSum) {
-                            smallestSum = sum;
-                            comp1 = i;
-                            comp2 = j;
-                        }
-                    }
-                }
-            }
+        int[] sizes = new int[partitionInfo.getNumComponents()];
+        for (int label : partitionInfo.getComponentLabels()) {
+            sizes[label]++;
+        }
+        for (int c = 0; c < sizes.length; c++) {
+            PartitionLog.logf(Level.DETAIL, "Component %d size: %d", c, sizes[c]);
+        }
 
-            int size1 = components.get(comp1).size();
-            int size2 = components.get(comp2).size();
+        if (partitionInfo.getSplitSize() + partitionInfo.getNewSize() > 0) {
+            // Porównujemy dwie składowe powstałe z tego cięcia
+            int size1 = partitionInfo.getSplitSize();
+            int size2 = partitionInfo.getNewSize();
             int diff = Math.abs(size1 - size2);
             int totalSize = size1 + size2;
-        
-        // Używamy tej samej logiki co w GraphPartitioner
-        int allowedMargin = (partitionInfo.getMarginPercent() * totalSize) / 100;
-
-        System.out.printf("Analyzing split result - comparing components from split\n");
-        System.out.printf("Size difference: %d (between new components)\n", diff);
-        System.out.printf("Components being compared: %d and %d (sizes: %d, %d)\n",
-            comp1, comp2, size1, size2);
-        System.out.printf("Allowed margin: %d (margin %d%% of total size %d)\n",
-            allowedMargin, partitionInfo.getMarginPercent(), totalSize);
-        System.out.printf("Balance check: %s (diff %d <= allowed %d)\n", 
-            diff <= allowedMargin ? "✓ BALANCED" : "✗ UNBALANCED",
-            diff, allowedMargin);
-    } else {
-        System.out.println("Cannot assess balance - need at least 2 components");
+
+            // Używamy tej samej logiki co w GraphPartitioner
+            int allowedMargin = (partitionInfo.getMarginPercent() * totalSize) / 100;
+
+            PartitionLog.logf(Level.DETAIL, "Size difference: %d (between new components %d and %d, sizes: %d, %d)",
+                    diff, partitionInfo.getSplitComponent(), partitionInfo.getNewComponent(), size1, size2);
+            PartitionLog.logf(Level.DETAIL, "Allowed margin: %d (margin %d%% of total size %d)",
+                    allowedMargin, partitionInfo.getMarginPercent(), totalSize);
+            PartitionLog.logf(Level.DETAIL, "Balance check: %s (diff %d <= allowed %d)\n",
+                    diff <= allowedMargin ? "✓ BALANCED" : "✗ UNBALANCED",
+                    diff, allowedMargin);
+        } else {
+            PartitionLog.log(Level.DETAIL, "Cannot assess balance - need at least 2 components\n");
+        }
     }
-    System.out.println();
-}
 
+    // Every vertex of every component, only at Level.DUMP
     private static void printComponentAnalysis(Graph graph, int cutNumber) {
-        System.out.printf("--- COMPONENT ANALYSIS (Cut %d) ---\n", cutNumber);
+        if (!PartitionLog.isEnabled(Level.DUMP)) return;
+        PartitionLog.logf(Level.DUMP, "--- COMPONENT ANALYSIS (Cut %d) ---", cutNumber);
         int[] component = graph.getComponent();
         Map<Integer, List<Integer>> components = new HashMap<>();
 
@@ -188,29 +334,34 @@ public class PartitionResult {
         }
 
         for (Map.Entry<Integer, List<Integer>> entry : components.entrySet()) {
-            System.out.printf("Component %d: %s\n", entry.getKey(), entry.getValue());
+            PartitionLog.logf(Level.DUMP, "Component %d: %s", entry.getKey(), entry.getValue());
         }
-        System.out.println();
+        PartitionLog.log(Level.DUMP, "");
     }
 
+    // Neighbour list of every vertex, only at Level.DUMP
     private static void printAdjacencyList(Graph graph, String title) {
-        System.out.println("--- " + title + " ---");
-        List<Integer>[] neighbors = graph.getNeighbors();
+        if (!PartitionLog.isEnabled(Level.DUMP)) return;
+        PartitionLog.log(Level.DUMP, "--- " + title + " ---");
+        CsrGraph adjacency = graph.getAdjacency();
         for (int i = 0; i < graph.getNumVertices(); i++) {
-            System.out.printf("Vertex %d: %s\n", i, neighbors[i]);
+            PartitionLog.log(Level.DUMP, "Vertex " + i + ": " + adjacency.neighborsToString(i));
         }
-        System.out.println();
+        PartitionLog.log(Level.DUMP, "");
     }
 
-    private static void printFinalSummary(List<PartitionInfo> results, int targetCuts) {
-        System.out.println("\n=== PARTITIONING SUMMARY ===");
-        System.out.printf("Completed %d out of %d planned cuts\n", results.size(), targetCuts);
-        System.out.println("\nCut History:");
+    private static void printFinalSummary(List<PartitionInfo> results, int targetCuts, long elapsedNanos) {
+        PartitionLog.logf(Level.SUMMARY, "=== PARTITIONING SUMMARY: completed %d out of %d planned cuts in %.1f ms ===",
+                results.size(), targetCuts, elapsedNanos / 1e6);
+        if (!PartitionLog.isEnabled(Level.DETAIL)) return;
+        PartitionLog.log(Level.DETAIL, "Cut History:");
         for (PartitionInfo info : results) {
-            System.out.printf("  Cut %d: %d components, %s\n",
+            PartitionLog.logf(Level.DETAIL, "  Cut %d: %d components, %s, cut edges %d (before refinement %d)",
                     info.getCutNumber(),
                     info.getNumComponents(),
-                    info.isBalanced() ? "Balanced" : "Unbalanced");
+                    info.isBalanced() ? "Balanced" : "Unbalanced",
+                    info.getCutEdges(),
+                    info.getCutEdgesBefore());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Pozycje wierzchołków na płaszczyźnie w dwóch tablicach double indeksowanych numerem wierzchołka.
+ * Obiekt jest przekazywany przez referencję (graf, panele, MainUI) zamiast kopiowania map punktów.
+ * Wierzchołek bez pozycji ma współrzędne NaN. Każda zmiana zwiększa getVersion(), więc dane wyliczone
+ * z pozycji (np. indeks przestrzenny) można odświeżać tylko wtedy, gdy wersja się zmieniła.
+ * Klasa nie jest synchronizowana - pozycje paneli są zmieniane i czytane w wątku EDT.
+ */
+public final class VertexPositions {
+    private final double[] x;
+    private final double[] y;
+    private int version;
+
+    public VertexPositions(int numVertices) {
+        this.x = new double[numVertices];
+        this.y = new double[numVertices];
+        Arrays.fill(x, Double.NaN);
+        Arrays.fill(y, Double.NaN);
+    }
+
+    private VertexPositions(double[] x, double[] y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    // Przejmuje tablice bez kopiowania
+    public static VertexPositions wrap(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new GraphException("Błąd: Różne długości tablic współrzędnych (" + x.length + " i " + y.length + ")");
+        }
+        return new VertexPositions(x, y);
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public boolean contains(int vertex) {
+        return !Double.isNaN(x[vertex]);
+    }
+
+    public double getX(int vertex) {
+        return x[vertex];
+    }
+
+    public double getY(int vertex) {
+        return y[vertex];
+    }
+
+    public void set(int vertex, double px, double py) {
+        x[vertex] = px;
+        y[vertex] = py;
+        version++;
+    }
+
+    // Kopiuje współrzędne wszystkich wierzchołków (tablice długości size())
+    public void setAll(double[] px, double[] py) {
+        System.arraycopy(px, 0, x, 0, x.length);
+        System.arraycopy(py, 0, y, 0, y.length);
+        version++;
+    }
+
+    // Tablice do odczytu hurtowego, nie wolno ich modyfikować
+    public double[] getXs() {
+        return x;
+    }
+
+    public double[] getYs() {
+        return y;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.GraphVisualisation;
+
+import org.example.model.VertexPositions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zapytania SpatialGrid porównane z przeglądaniem wszystkich wierzchołków (Rectangle2D.contains).
+ */
+class SpatialGridTest {
+
+    @Test
+    void queriesMatchBruteForce() {
+        Random random = new Random(7);
+        for (int layout = 0; layout < 20; layout++) {
+            int n = 1 + random.nextInt(3000);
+            VertexPositions positions = new VertexPositions(n);
+            // Część układów płaska albo z powtórzonymi punktami; co piąty wierzchołek bez pozycji
+            double width = random.nextBoolean() ? 1000 : 1;
+            double height = layout % 4 == 0 ? 0 : 1000 * random.nextDouble();
+            for (int v = 0; v < n; v++) {
+                if (v % 5 == 4) continue;
+                double x = layout % 7 == 0 ? 42 : random.nextDouble() * width - width / 2;
+                double y = random.nextDouble() * height;
+                positions.set(v, x, y);
+            }
+            SpatialGrid grid = SpatialGrid.build(positions);
+
+            int[] result = new int[n];
+            for (int q = 0; q < 50; q++) {
+                double x = random.nextDouble() * 1.4 * width - 0.7 * width;
+                double y = random.nextDouble() * 1.4 * height - 0.2 * height - 1;
+                Rectangle2D bounds = new Rectangle2D.Double(x, y,
+                        random.nextDouble() * width / 2, random.nextDouble() * Math.max(height, 1) / 2);
+                assertQueryMatches(positions, grid, bounds, result);
+            }
+            // Cały układ i prostokąty daleko poza nim
+            assertQueryMatches(positions, grid, new Rectangle2D.Double(-1e9, -1e9, 2e9, 2e9), result);
+            assertQueryMatches(positions, grid, new Rectangle2D.Double(1e300, 1e300, 1, 1), result);
+            assertQueryMatches(positions, grid, new Rectangle2D.Double(-1e300, -1e300, 1, 1), result);
+        }
+    }
+
+    @Test
+    void emptyLayout() {
+        VertexPositions positions = new VertexPositions(10);
+        SpatialGrid grid = SpatialGrid.build(positions);
+        assertEquals(0, grid.query(new Rectangle2D.Double(-1e9, -1e9, 2e9, 2e9), new int[10]));
+    }
+
+    @Test
+    void gridFollowsPositionVersion() {
+        VertexPositions positions = new VertexPositions(3);
+        positions.set(0, 1, 1);
+        SpatialGrid grid = SpatialGrid.build(positions);
+        assertTrue(grid.isCurrent(positions));
+        assertFalse(grid.isCurrent(new VertexPositions(3)));
+
+        positions.set(1, 2, 2);
+        assertFalse(grid.isCurrent(positions));
+    }
+
+    private static void assertQueryMatches(VertexPositions positions, SpatialGrid grid, Rectangle2D bounds, int[] result) {
+        int count = grid.query(bounds, result);
+        int[] actual = Arrays.copyOf(result, count);
+        Arrays.sort(actual);
+
+        int[] expected = new int[positions.size()];
+        int expectedCount = 0;
+        for (int v = 0; v < positions.size(); v++) {
+            if (positions.contains(v) && bounds.contains(positions.getX(v), positions.getY(v))) {
+                expected[expectedCount++] = v;
+            }
+        }
+        assertArrayEquals(Arrays.copyOf(expected, expectedCount), actual, () -> "query " + bounds);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.algorithm;
+
+import org.example.io.GraphLoaderBin;
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+import org.example.model.PartitionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invariants of a partitioning run on the bundled test graphs, for every driver and mode:
+ * every cut splits one component into two connected parts within the margin, exactly the edges
+ * between different parts are removed, and the labels reported per cut match the graph.
+ */
+class PartitionInvariantsTest {
+    private static final String TEST_DATA = "src/main/java/org/example/test_data";
+    private static final int MARGIN_PERCENT = 10;
+
+    private PartitionLog.Level logLevel;
+
+    @BeforeEach
+    void silenceLog() {
+        logLevel = PartitionLog.getLevel();
+        PartitionLog.setLevel(PartitionLog.Level.OFF);
+    }
+
+    @AfterEach
+    void restoreSettings() {
+        PartitionLog.setLevel(logLevel);
+        GraphPartitioner.setPartitionMode(GraphPartitioner.PartitionMode.CENTER_GROWTH);
+        GraphPartitioner.setRecursiveDriver(false);
+        GraphPartitioner.setRefinementEnabled(true);
+    }
+
+    static Stream<Arguments> runs() {
+        Stream.Builder<Arguments> runs = Stream.builder();
+        for (String file : new String[]{"graf.bin", "graf4.bin", "graf6.bin"}) {
+            for (GraphPartitioner.PartitionMode mode : GraphPartitioner.PartitionMode.values()) {
+                runs.add(Arguments.of(file, mode, false, true));
+                runs.add(Arguments.of(file, mode, true, true));
+            }
+            runs.add(Arguments.of(file, GraphPartitioner.PartitionMode.CENTER_GROWTH, false, false));
+        }
+        return runs.build();
+    }
+
+    @ParameterizedTest(name = "{0} {1} recursive={2} refinement={3}")
+    @MethodSource("runs")
+    void cutsAreBalancedConnectedAndConsistent(String file, GraphPartitioner.PartitionMode mode, boolean recursive,
+                                               boolean refinement) throws IOException {
+        GraphPartitioner.setPartitionMode(mode);
+        GraphPartitioner.setRecursiveDriver(recursive);
+        GraphPartitioner.setRefinementEnabled(refinement);
+
+        Graph graph = load(file);
+        CsrGraph original = graph.getAdjacency();
+        int n = graph.getNumVertices();
+        int numCuts = 6;
+
+        List<PartitionResult.PartitionInfo> results = PartitionResult.performPartitioning(graph, numCuts, MARGIN_PERCENT);
+        assertEquals(numCuts, results.size(), "cuts made");
+        assertEquals(1 + numCuts, graph.getNumComponents());
+
+        for (PartitionResult.PartitionInfo info : results) {
+            int size = info.getSplitSize() + info.getNewSize();
+            int allowedMargin = MARGIN_PERCENT * size / 100;
+            assertTrue(Math.abs(info.getSplitSize() - info.getNewSize()) <= allowedMargin,
+                    "cut " + info.getCutNumber() + " unbalanced: " + info.getSplitSize() + " vs " + info.getNewSize());
+            assertTrue(info.isBalanced());
+            assertEquals(info.getCutNumber() + 1, info.getNumComponents());
+        }
+
+        // Labels reported for the last cut are the components held by the graph
+        int[] labels = Arrays.copyOf(graph.getComponent(), n);
+        assertArrayEquals(labels, results.get(results.size() - 1).getComponentLabels());
+        Map<Integer, List<Integer>> parts = results.get(results.size() - 1).getComponentVertices();
+        assertEquals(1 + numCuts, parts.size());
+        for (Map.Entry<Integer, List<Integer>> part : parts.entrySet()) {
+            assertEquals(graph.getComponentSize(part.getKey()), part.getValue().size());
+        }
+
+        // Exactly the edges between different parts were removed
+        CsrGraph cut = graph.getAdjacency();
+        CsrGraph expected = original.filterEdges((u, v) -> labels[u] == labels[v]);
+        for (int v = 0; v < n; v++) {
+            int[] remaining = cut.neighborsOf(v);
+            int[] kept = expected.neighborsOf(v);
+            Arrays.sort(remaining);
+            Arrays.sort(kept);
+            assertArrayEquals(kept, remaining, "neighbors of " + v);
+        }
+
+        // Every part is connected: relabelling from scratch finds the same partition
+        GraphPartitioner.findConnectedComponents(graph);
+        assertEquals(1 + numCuts, graph.getNumComponents());
+        int[] relabelled = graph.getComponent();
+        int[] partOf = new int[1 + numCuts];
+        Arrays.fill(partOf, -1);
+        for (int v = 0; v < n; v++) {
+            if (partOf[labels[v]] == -1) {
+                partOf[labels[v]] = relabelled[v];
+            }
+            assertEquals(partOf[labels[v]], relabelled[v], "part of vertex " + v);
+        }
+    }
+
+    private static Graph load(String file) throws IOException {
+        return GraphLoaderBin.loadGraph(Paths.get(TEST_DATA, file).toString());
+    }
+}
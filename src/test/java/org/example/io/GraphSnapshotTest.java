@@ -0,0 +1,142 @@
+package org.example.io;
+
+import org.example.algorithm.PartitionLog;
+import org.example.model.CsrGraph;
+import org.example.model.Graph;
+import org.example.model.GraphException;
+import org.example.model.PartitionResult;
+import org.example.model.VertexPositions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zapis i odczyt GraphSnapshot: graf, pozycje i wyniki podziału wracają bez zmian,
+ * a uszkodzony plik albo obca wersja formatu kończą się GraphException.
+ */
+class GraphSnapshotTest {
+    private static final String GRAPH = "src/main/java/org/example/test_data/graf4.bin";
+
+    @TempDir
+    Path dir;
+
+    private PartitionLog.Level logLevel;
+
+    @BeforeEach
+    void silenceLog() {
+        logLevel = PartitionLog.getLevel();
+        PartitionLog.setLevel(PartitionLog.Level.OFF);
+    }
+
+    @AfterEach
+    void restoreLog() {
+        PartitionLog.setLevel(logLevel);
+    }
+
+    @Test
+    void partitionedGraphRoundTrip() throws IOException {
+        Graph graph = GraphLoaderBin.loadGraph(Paths.get(GRAPH).toString());
+        int n = graph.getNumVertices();
+        VertexPositions positions = new VertexPositions(n);
+        for (int v = 0; v < n; v += 3) {
+            positions.set(v, v * 0.5, -v);
+        }
+        graph.setVertexPositions(positions);
+        List<PartitionResult.PartitionInfo> results = PartitionResult.performPartitioning(graph, 4, 10);
+        assertEquals(4, results.size());
+
+        String file = dir.resolve("graf4" + GraphSnapshot.EXTENSION).toString();
+        GraphSnapshot.write(graph, results, file);
+        GraphSnapshot.Snapshot snapshot = GraphSnapshot.read(file);
+        Graph read = snapshot.getGraph();
+
+        assertEquals(n, read.getNumVertices());
+        assertEquals(graph.getNumComponents(), read.getNumComponents());
+        CsrGraph expected = graph.getAdjacency();
+        CsrGraph actual = read.getAdjacency();
+        assertEquals(expected.getNumEntries(), actual.getNumEntries());
+        for (int v = 0; v < n; v++) {
+            assertArrayEquals(expected.neighborsOf(v), actual.neighborsOf(v), "neighbors of " + v);
+        }
+        assertArrayEquals(Arrays.copyOf(graph.getComponent(), n), Arrays.copyOf(read.getComponent(), n));
+        assertArrayEquals(Arrays.copyOf(graph.getGroupAssignment(), n), Arrays.copyOf(read.getGroupAssignment(), n));
+        assertArrayEquals(graph.getColIndex(), read.getColIndex());
+        assertArrayEquals(graph.getRowPtr(), read.getRowPtr());
+        assertArrayEquals(positions.getXs(), read.getVertexPositions().getXs());
+        assertArrayEquals(positions.getYs(), read.getVertexPositions().getYs());
+
+        List<PartitionResult.PartitionInfo> readResults = snapshot.getPartitions();
+        assertEquals(results.size(), readResults.size());
+        for (int i = 0; i < results.size(); i++) {
+            PartitionResult.PartitionInfo before = results.get(i);
+            PartitionResult.PartitionInfo after = readResults.get(i);
+            assertEquals(before.getCutNumber(), after.getCutNumber());
+            assertEquals(before.getNumComponents(), after.getNumComponents());
+            assertEquals(before.getMarginPercent(), after.getMarginPercent());
+            assertEquals(before.isBalanced(), after.isBalanced());
+            assertEquals(before.getCutEdgesBefore(), after.getCutEdgesBefore());
+            assertEquals(before.getCutEdges(), after.getCutEdges());
+            assertEquals(before.getSplitComponent(), after.getSplitComponent());
+            assertEquals(before.getSplitSize(), after.getSplitSize());
+            assertEquals(before.getNewComponent(), after.getNewComponent());
+            assertEquals(before.getElapsedNanos(), after.getElapsedNanos());
+            assertArrayEquals(before.getMovedVertices(), after.getMovedVertices());
+            assertArrayEquals(before.getComponentLabels(), after.getComponentLabels());
+        }
+    }
+
+    @Test
+    void graphWithoutPartitionsRoundTrip() throws IOException {
+        Graph graph = GraphLoaderBin.loadGraph(Paths.get(GRAPH).toString());
+        String file = dir.resolve("plain" + GraphSnapshot.EXTENSION).toString();
+        GraphSnapshot.write(graph, null, file);
+
+        GraphSnapshot.Snapshot snapshot = GraphSnapshot.read(file);
+        assertTrue(snapshot.getPartitions().isEmpty());
+        assertNull(snapshot.getGraph().getVertexPositions());
+        assertEquals(graph.getAdjacency().getNumEntries(), snapshot.getGraph().getAdjacency().getNumEntries());
+    }
+
+    @Test
+    void corruptedSnapshotIsRejected() throws IOException {
+        Graph graph = GraphLoaderBin.loadGraph(Paths.get(GRAPH).toString());
+        String file = dir.resolve("corrupted" + GraphSnapshot.EXTENSION).toString();
+        GraphSnapshot.write(graph, null, file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(100);
+            int b = raf.read();
+            raf.seek(100);
+            raf.write(b ^ 1);
+        }
+        assertThrows(GraphException.class, () -> GraphSnapshot.read(file));
+    }
+
+    @Test
+    void unknownVersionIsRejected() throws IOException {
+        Graph graph = GraphLoaderBin.loadGraph(Paths.get(GRAPH).toString());
+        String file = dir.resolve("version" + GraphSnapshot.EXTENSION).toString();
+        GraphSnapshot.write(graph, null, file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.write(2); // little-endian, najmłodszy bajt wersji
+        }
+        GraphException e = assertThrows(GraphException.class, () -> GraphSnapshot.read(file));
+        assertTrue(e.getMessage().contains("wersja"), e.getMessage());
+    }
+}